@@ -0,0 +1,488 @@
+package pgbot;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import picturegame.GameClient;
+import picturegame.ServerMessageDecoder;
+import picturegame.ServerMessageHandler;
+import picturegame.StrokeModel;
+import picturegame.StrokeSimplifier;
+
+/**
+ * The PGBot class is a scripted player with no window.  It connects with
+ * a GameClient, claims a username, joins a lobby and then plays whatever
+ * role the server gives it: as the drawer it replays synthetic strokes
+ * (through a StrokeSimplifier, as the real client would), and as a
+ * guesser it guesses words from a list every few seconds.
+ * 
+ * Each bot has a thread reading the server's messages (plus its
+ * GameClient's writer), both with small stacks; drawing and guessing run
+ * as tasks on one scheduler shared by every bot, so thousands of bots
+ * fit in one JVM.  Counters shared by every bot (see getReceived and so
+ * on) report what the whole fleet has done.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGBot extends Thread implements ServerMessageHandler {
+	
+	// CONSTANTS - Playing
+	private static final int CANVAS_WIDTH = 550; // pixels the strokes are made for (the window's usual draw area)
+	private static final int CANVAS_HEIGHT = 450;
+	private static final int[] COLORS = {0xFF000000, 0xFF0000FF, 0xFFFF0000, 0xFF00FF00};
+	private static final long POINT_MILLISECONDS = 16; // one point a frame, like a steady drag
+	private static final long GUESS_MILLISECONDS = 4000; // average time between guesses
+	private static final int USERNAME_ATTEMPTS = 10;
+	
+	// CONSTANTS - Synthetic strokes (shared by every bot)
+	private static final int STROKES = 32;
+	private static final int POINTS_PER_STROKE = 60;
+	private static final int[][] STROKE_X = new int[STROKES][POINTS_PER_STROKE];
+	private static final int[][] STROKE_Y = new int[STROKES][POINTS_PER_STROKE];
+	
+	// CONSTANTS - Threads
+	private static final long STACK_SIZE = 256 * 1024;
+	private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(
+			Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+				public Thread newThread(Runnable r)
+				{
+					Thread thread = new Thread(r, "PGBot scheduler");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+	
+	// Fleet-wide counters
+	private static final LongAdder received = new LongAdder();
+	private static final LongAdder pointsReceived = new LongAdder();
+	private static final LongAdder pointsSent = new LongAdder();
+	private static final LongAdder guessesSent = new LongAdder();
+	private static final LongAdder rounds = new LongAdder();
+	
+	static
+	{
+		// Loops and waves of a few sizes, the same for every run
+		Random random = new Random(STROKES);
+		for(int s = 0; s < STROKES; s++)
+		{
+			double radius = 20 + random.nextInt(80);
+			double waves = 1 + random.nextInt(4);
+			double turn = Math.PI * (1 + random.nextDouble());
+			for(int p = 0; p < POINTS_PER_STROKE; p++)
+			{
+				double t = (double) p / (POINTS_PER_STROKE - 1);
+				STROKE_X[s][p] = (int) Math.round(radius * Math.cos(turn * t) + radius * t);
+				STROKE_Y[s][p] = (int) Math.round(radius * Math.sin(turn * t) + 10 * Math.sin(waves * 2 * Math.PI * t));
+			}
+		}
+	}
+	
+	// DATA MEMBERS
+	private String hostname;
+	private int port;
+	private String username;
+	private String lobbyKey; // private lobby to join, or null for a public one
+	private String[] words; // what to guess
+	private Random random;
+	private GameClient client;
+	private ServerMessageDecoder decoder;
+	private volatile boolean active;
+	private ScheduledFuture<?> task; // drawing or guessing, null when idle
+	
+	// Drawing state (guarded by this)
+	private StrokeSimplifier simplifier;
+	private int stroke;
+	private int point;
+	private int offsetX;
+	private int offsetY;
+	private int color;
+	
+	/**
+	 * constructor for PGBot
+	 * 
+	 * @param host the server's host
+	 * @param p the server's port
+	 * @param name username to ask for (a number is added if it's taken)
+	 * @param key private lobby key to join, or <b>null</b> to join a
+	 * public lobby
+	 * @param w words to guess from
+	 * @param seed seed for the bot's choices
+	 */
+	public PGBot(String host, int p, String name, String key, String[] w, long seed)
+	{
+		super(null, null, "PGBot " + name, STACK_SIZE);
+		setDaemon(true);
+		hostname = host;
+		port = p;
+		username = name;
+		lobbyKey = key;
+		words = w;
+		random = new Random(seed);
+		decoder = new ServerMessageDecoder(this);
+		simplifier = new StrokeSimplifier(StrokeSimplifier.DEFAULT_TOLERANCE);
+		active = false;
+	}
+	
+	/**
+	 * connects, joins a lobby and plays until removed, disconnected or shut
+	 * down
+	 */
+	public void run()
+	{
+		try
+		{
+			client = new GameClient(hostname, port);
+			if(!claimUsername() || !joinLobby())
+			{
+				System.err.println(username + ": could not join a lobby");
+				client.close(0);
+				return;
+			}
+			
+			active = true;
+			client.requestInfo();
+			while(active)
+			{
+				String message = client.readMessage();
+				received.increment();
+				
+				try
+				{
+					decoder.decode(message);
+				}
+				catch(IllegalArgumentException e)
+				{
+					System.err.println(username + ": could not parse message - " + message);
+				}
+			}
+		}
+		catch(IOException e)
+		{
+			if(active)
+				System.err.println(username + ": lost connection - " + e.getMessage());
+		}
+		finally
+		{
+			active = false;
+			stopTask();
+		}
+	}
+	
+	/**
+	 * stops playing and disconnects
+	 */
+	public void shutdown()
+	{
+		active = false;
+		stopTask();
+		if(client != null)
+			client.close(0);
+	}
+	
+	/**
+	 * gives the bot's username (once claimed)
+	 * 
+	 * @return the username
+	 */
+	public String getUsername()
+	{
+		return username;
+	}
+	
+	/**
+	 * says whether the bot is in a lobby
+	 * 
+	 * @return <b>true</b> if playing, <b>false</b> otherwise
+	 */
+	public boolean isPlaying()
+	{
+		return active;
+	}
+	
+	/**
+	 * claims the username, adding a number to it while it's taken
+	 * 
+	 * @return <b>true</b> if a username was claimed, <b>false</b> otherwise
+	 * @throws IOException if the connection fails
+	 */
+	private boolean claimUsername() throws IOException
+	{
+		String base = username;
+		for(int i = 1; i <= USERNAME_ATTEMPTS; i++)
+		{
+			if(client.claimUsername(username))
+				return true;
+			username = base + "-" + (random.nextInt(1000) + i);
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * joins the bot's lobby
+	 * 
+	 * @return <b>true</b> if joined, <b>false</b> otherwise
+	 * @throws IOException if the connection fails
+	 */
+	private boolean joinLobby() throws IOException
+	{
+		return (lobbyKey == null) ? client.joinPublicLobby() : client.joinPrivateLobby(lobbyKey);
+	}
+	
+	/**
+	 * replaces whatever the bot is doing with a repeating task
+	 * 
+	 * @param work the task
+	 * @param firstMillis delay before it first runs
+	 * @param periodMillis time between runs
+	 */
+	private synchronized void startTask(Runnable work, long firstMillis, long periodMillis)
+	{
+		stopTask();
+		if(active)
+			task = SCHEDULER.scheduleAtFixedRate(work, firstMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * stops drawing or guessing
+	 */
+	private synchronized void stopTask()
+	{
+		if(task != null)
+			task.cancel(false);
+		task = null;
+	}
+	
+	/**
+	 * sends the next point of the current stroke, starting a new stroke
+	 * after the last one ends (drawing task)
+	 */
+	private synchronized void drawNext()
+	{
+		if(point == 0)
+		{
+			stroke = random.nextInt(STROKES);
+			offsetX = random.nextInt(CANVAS_WIDTH / 2) + CANVAS_WIDTH / 8;
+			offsetY = random.nextInt(CANVAS_HEIGHT / 2) + CANVAS_HEIGHT / 8;
+			color = COLORS[random.nextInt(COLORS.length)];
+		}
+		
+		int x = Math.max(0, Math.min(CANVAS_WIDTH - 1, offsetX + STROKE_X[stroke][point]));
+		int y = Math.max(0, Math.min(CANVAS_HEIGHT - 1, offsetY + STROKE_Y[stroke][point]));
+		if(simplifier.add(x, y, color))
+			sendPoint();
+		
+		point++;
+		if(point == POINTS_PER_STROKE)
+		{
+			if(simplifier.end())
+				sendPoint();
+			client.sendRelease();
+			point = 0;
+		}
+	}
+	
+	/**
+	 * sends the point the stroke simplifier picked
+	 */
+	private void sendPoint()
+	{
+		client.sendPoint(StrokeModel.toUnits(simplifier.getX(), CANVAS_WIDTH),
+				StrokeModel.toUnits(simplifier.getY(), CANVAS_HEIGHT), simplifier.getColor());
+		pointsSent.increment();
+	}
+	
+	/**
+	 * guesses a word (guessing task)
+	 */
+	private void guessNext()
+	{
+		client.sendGuess(words[random.nextInt(words.length)]);
+		guessesSent.increment();
+	}
+	
+	@Override
+	public synchronized void roleDraw(String word)
+	{
+		simplifier.end();
+		point = 0;
+		startTask(new Runnable() {
+			public void run()
+			{
+				drawNext();
+			}
+		}, POINT_MILLISECONDS, POINT_MILLISECONDS);
+	}
+	
+	@Override
+	public void roleGuess()
+	{
+		if(words.length == 0)
+		{
+			stopTask();
+			return;
+		}
+		
+		// Spread guesses out so bots in a lobby don't all guess at once
+		startTask(new Runnable() {
+			public void run()
+			{
+				guessNext();
+			}
+		}, random.nextInt((int) GUESS_MILLISECONDS) + GUESS_MILLISECONDS / 2, GUESS_MILLISECONDS);
+	}
+	
+	@Override
+	public void roundEnd()
+	{
+		rounds.increment();
+		stopTask();
+	}
+	
+	@Override
+	public void gameEnd(String result)
+	{
+		stopTask();
+	}
+	
+	@Override
+	public void removed()
+	{
+		active = false;
+		stopTask();
+	}
+	
+	@Override
+	public void drawPoint(int x, int y, int rgb)
+	{
+		pointsReceived.increment();
+	}
+	
+	@Override
+	public void chat(String message)
+	{
+	}
+	
+	@Override
+	public void drawRelease()
+	{
+	}
+	
+	@Override
+	public void drawClear()
+	{
+	}
+	
+	@Override
+	public void gameStart()
+	{
+	}
+	
+	@Override
+	public void correctGuess()
+	{
+	}
+	
+	@Override
+	public void score(int team1, int team2)
+	{
+	}
+	
+	@Override
+	public void rebalancing()
+	{
+	}
+	
+	@Override
+	public void playerList(String list)
+	{
+	}
+	
+	@Override
+	public void playerJoined(int team, String name)
+	{
+	}
+	
+	@Override
+	public void playerLeft(String name)
+	{
+	}
+	
+	@Override
+	public void playerTeamChanged(int team, String name)
+	{
+	}
+	
+	@Override
+	public void guessList(String list)
+	{
+	}
+	
+	@Override
+	public void guessAdded(String guess)
+	{
+	}
+	
+	@Override
+	public void deadline(long serverTime, long deadline)
+	{
+	}
+	
+	/**
+	 * gives the number of messages every bot has received
+	 * 
+	 * @return messages received
+	 */
+	public static long getReceived()
+	{
+		return received.sum();
+	}
+	
+	/**
+	 * gives the number of drawing points every bot has received
+	 * 
+	 * @return points received
+	 */
+	public static long getPointsReceived()
+	{
+		return pointsReceived.sum();
+	}
+	
+	/**
+	 * gives the number of drawing points every bot has sent
+	 * 
+	 * @return points sent
+	 */
+	public static long getPointsSent()
+	{
+		return pointsSent.sum();
+	}
+	
+	/**
+	 * gives the number of guesses every bot has sent
+	 * 
+	 * @return guesses sent
+	 */
+	public static long getGuessesSent()
+	{
+		return guessesSent.sum();
+	}
+	
+	/**
+	 * gives the number of round ends every bot has seen
+	 * 
+	 * @return rounds ended (counted once per bot in the lobby)
+	 */
+	public static long getRounds()
+	{
+		return rounds.sum();
+	}
+}
@@ -0,0 +1,107 @@
+package pgbot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import pgserver.PGServer;
+import pgserver.PGWordList;
+
+/**
+ * The PGBotFleet class starts many PGBots against one server, for load
+ * testing or filling lobbies, and prints what the fleet has done every
+ * few seconds.  The bots guess words from the server's own word lists
+ * (read from the classpath), so some guesses are right.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGBotFleet {
+	
+	// CONSTANTS
+	private static final String USAGE = "USAGE: PGBotFleet [HOST] [PORT NUMBER] [BOTS] [PRIVATE LOBBY KEY (optional)]";
+	private static final String USERNAME = "bot";
+	private static final long START_MILLISECONDS = 5; // between bots starting, so the server isn't flooded
+	private static final long REPORT_MILLISECONDS = 5000;
+	
+	/**
+	 * gives every word of every word list
+	 * 
+	 * @return the words, or an empty array if the lists can't be read
+	 */
+	private static String[] loadWords()
+	{
+		ArrayList<String> words = new ArrayList<String>();
+		try
+		{
+			ArrayList<PGWordList> wordLists = PGServer.initializeWordLists();
+			for(int i = 0; i < wordLists.size(); i++)
+				words.addAll(wordLists.get(i).getWords());
+		}
+		catch(IOException e)
+		{
+			System.err.println("Could not read word lists, bots won't guess");
+		}
+		
+		return words.toArray(new String[words.size()]);
+	}
+	
+	/**
+	 * main - starts the bots and reports until they have all stopped
+	 * 
+	 * @param args host, port number, number of bots and optionally a
+	 * private lobby key for every bot to join
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		if(args.length != 3 && args.length != 4)
+		{
+			System.out.println(USAGE);
+			System.exit(1);
+		}
+		
+		String host = args[0];
+		int port = 0;
+		int count = 0;
+		try
+		{
+			port = Integer.parseInt(args[1]);
+			count = Integer.parseInt(args[2]);
+		}
+		catch(NumberFormatException e)
+		{
+			System.out.println(USAGE);
+			System.exit(1);
+		}
+		String key = (args.length == 4) ? args[3] : null;
+		
+		String[] words = loadWords();
+		PGBot[] bots = new PGBot[count];
+		long started = System.currentTimeMillis();
+		for(int i = 0; i < count; i++)
+		{
+			bots[i] = new PGBot(host, port, USERNAME + i, key, words, started + i);
+			bots[i].start();
+			Thread.sleep(START_MILLISECONDS);
+		}
+		
+		int playing = count;
+		while(playing > 0)
+		{
+			Thread.sleep(REPORT_MILLISECONDS);
+			
+			playing = 0;
+			for(int i = 0; i < count; i++)
+				if(bots[i].isAlive())
+					playing++;
+			
+			long seconds = Math.max(1, (System.currentTimeMillis() - started) / 1000);
+			System.out.println(seconds + "s: " + playing + " bots connected, "
+					+ PGBot.getReceived() / seconds + " messages/s received, "
+					+ PGBot.getPointsSent() / seconds + " points/s sent, "
+					+ PGBot.getPointsReceived() / seconds + " points/s received, "
+					+ PGBot.getGuessesSent() + " guesses, " + PGBot.getRounds() + " round ends");
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package pgserver;
+
+import java.util.Random;
+
+/**
+ * The PGAliasTable class samples indices in proportion to fixed weights
+ * in constant time using Vose's alias method.  Each slot holds the
+ * probability of keeping its own index and the index to use otherwise.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGAliasTable {
+	
+	// DATA MEMBERS
+	private float[] probability;
+	private int[] alias;
+	private double totalWeight;
+	
+	/**
+	 * builds an alias table in O(n)
+	 * 
+	 * @param weights non-negative weight for each index (at least one
+	 * must be positive)
+	 */
+	public PGAliasTable(double[] weights)
+	{
+		int n = weights.length;
+		probability = new float[n];
+		alias = new int[n];
+		
+		totalWeight = 0;
+		for(int i = 0; i < n; i++)
+			totalWeight += weights[i];
+		
+		// Scale so the average weight is 1 and split into small and large
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for(int i = 0; i < n; i++)
+		{
+			scaled[i] = weights[i] * n / totalWeight;
+			if(scaled[i] < 1.0)
+				small[smallCount++] = i;
+			else
+				large[largeCount++] = i;
+		}
+		
+		// Fill each small slot up to 1 with part of a large one
+		while((smallCount > 0) && (largeCount > 0))
+		{
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+			
+			probability[less] = (float) scaled[less];
+			alias[less] = more;
+			
+			scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+			if(scaled[more] < 1.0)
+				small[smallCount++] = more;
+			else
+				large[largeCount++] = more;
+		}
+		
+		// Whatever is left is 1 up to rounding error
+		while(largeCount > 0)
+			probability[large[--largeCount]] = 1.0f;
+		while(smallCount > 0)
+			probability[small[--smallCount]] = 1.0f;
+	}
+	
+	/**
+	 * picks an index in proportion to its weight
+	 * 
+	 * @param rand source of randomness
+	 * @return the sampled index
+	 */
+	public int sample(Random rand)
+	{
+		int slot = rand.nextInt(probability.length);
+		return (rand.nextFloat() < probability[slot]) ? slot : alias[slot];
+	}
+	
+	/**
+	 * gives the sum of all weights the table was built from
+	 * 
+	 * @return total weight
+	 */
+	public double getTotalWeight()
+	{
+		return totalWeight;
+	}
+	
+	/**
+	 * gives the number of indices in the table
+	 * 
+	 * @return number of indices
+	 */
+	public int size()
+	{
+		return probability.length;
+	}
+}
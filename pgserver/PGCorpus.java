@@ -0,0 +1,655 @@
+package pgserver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * The PGCorpus class is an immutable snapshot of every word list the
+ * server knows about.  The server swaps in a whole new PGCorpus when the
+ * word lists are reloaded, so a lobby only ever sees one consistent set
+ * of lists.
+ * 
+ * Words are packed into one UTF-8 byte arena indexed by a table of int
+ * offsets, so word N is the bytes between offsets N and N + 1.  Each word
+ * list (category) is a contiguous range of word IDs.  A corpus can be
+ * written out in this packed form and memory-mapped back in, which makes
+ * loading even a very large corpus a matter of reading a short header.
+ * 
+ * A word list over several categories is a BitSet union of their ranges.
+ * Unions are built the first time a combination is asked for and cached
+ * weakly, so every lobby playing the same combination shares one BitSet
+ * and the union is dropped once no lobby uses it.
+ * 
+ * Looking a word up (to tell a near miss from another real word) uses
+ * one hash index over the whole arena, built the first time it is
+ * needed: an open addressing table of word IDs keyed by the lowercased
+ * word's UTF-8 bytes.  Every word list over the corpus shares it and
+ * checks the IDs found against its own range or BitSet, so a lookup
+ * never needs the words as Strings.
+ * 
+ * Category names travel to clients joined by
+ * PGServerThread.CATEGORY_SEPARATOR, so a separator in a name (from a
+ * word list file called "a,b", say) is replaced with
+ * SEPARATOR_REPLACEMENT, and surrounding spaces are trimmed, when a
+ * corpus is built or loaded.  The name then comes back from a client in
+ * one piece.
+ * 
+ * Packed file layout (big-endian): magic, category count, word count,
+ * arena length, category start IDs (count + 1), word offsets
+ * (words + 1), category names (each a short length and UTF-8 bytes),
+ * then the arena.
+ * 
+ * @author Billy Robbins
+ * @version 1.1
+ * @since 10/19/2026
+ */
+public class PGCorpus {
+	
+	// CONSTANTS
+	public static final String ALL_WORDLIST_NAME = "all";
+	public static final String PACKED_EXTENSION = ".pgc";
+	private static final int MAGIC = 0x50474331; // "PGC1"
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final int EMPTY = -1; // free slot in the word index
+	private static final String SEPARATOR_REPLACEMENT = "_"; // stands in for CATEGORY_SEPARATOR in names
+	private static final int FNV_OFFSET = 0x811C9DC5;
+	private static final int FNV_PRIME = 0x01000193;
+	
+	// DATA MEMBERS
+	private ByteBuffer arena;
+	private IntBuffer offsets;
+	private int wordCount;
+	private String[] categoryNames;
+	private int[] categoryStarts;
+	private HashMap<BitSet, WeakReference<BitSet>> unionCache; // category set -> word IDs
+	private PGWordStats stats; // created when first needed
+	private volatile int[] wordIndex; // word IDs by lowercased word, created when first needed
+	
+	/**
+	 * constructor for PGCorpus that packs plain word lists into an
+	 * in-memory arena
+	 * 
+	 * @param wl the word lists (categories) in this corpus
+	 */
+	public PGCorpus(ArrayList<PGWordList> wl)
+	{
+		categoryNames = new String[wl.size()];
+		categoryStarts = new int[wl.size() + 1];
+		
+		// Encode every word once to size the arena
+		ArrayList<byte[]> encoded = new ArrayList<byte[]>();
+		int arenaLength = 0;
+		for(int i = 0; i < wl.size(); i++)
+		{
+			PGWordList list = wl.get(i);
+			categoryNames[i] = categoryName(list.getName());
+			categoryStarts[i] = encoded.size();
+			for(int w = 0; w < list.size(); w++)
+			{
+				byte[] bytes = list.getWord(w).getBytes(UTF_8);
+				encoded.add(bytes);
+				arenaLength += bytes.length;
+			}
+		}
+		wordCount = encoded.size();
+		categoryStarts[wl.size()] = wordCount;
+		
+		int[] offsetTable = new int[wordCount + 1];
+		byte[] arenaBytes = new byte[arenaLength];
+		int position = 0;
+		for(int i = 0; i < wordCount; i++)
+		{
+			byte[] bytes = encoded.get(i);
+			offsetTable[i] = position;
+			System.arraycopy(bytes, 0, arenaBytes, position, bytes.length);
+			position += bytes.length;
+		}
+		offsetTable[wordCount] = position;
+		
+		arena = ByteBuffer.wrap(arenaBytes);
+		offsets = IntBuffer.wrap(offsetTable);
+		unionCache = new HashMap<BitSet, WeakReference<BitSet>>();
+	}
+	
+	/**
+	 * constructor used when mapping a packed corpus file
+	 */
+	private PGCorpus(ByteBuffer a, IntBuffer o, int count, String[] names, int[] starts)
+	{
+		arena = a;
+		offsets = o;
+		wordCount = count;
+		categoryNames = names;
+		categoryStarts = starts;
+		unionCache = new HashMap<BitSet, WeakReference<BitSet>>();
+	}
+	
+	/**
+	 * memory-maps a packed corpus file written by write()
+	 * 
+	 * @param file the packed corpus file
+	 * @return the corpus in the file
+	 * @throws IOException if the file can't be read or isn't a packed corpus
+	 */
+	public static PGCorpus load(File file) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try
+		{
+			FileChannel channel = raf.getChannel();
+			ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			
+			if(map.getInt() != MAGIC)
+				throw new IOException("Not a packed word list file: " + file);
+			int categoryCount = map.getInt();
+			int count = map.getInt();
+			int arenaLength = map.getInt();
+			
+			int[] starts = new int[categoryCount + 1];
+			for(int i = 0; i <= categoryCount; i++)
+				starts[i] = map.getInt();
+			
+			// The offset table stays in the mapping
+			ByteBuffer offsetBytes = map.slice();
+			offsetBytes.limit((count + 1) * 4);
+			IntBuffer offsetTable = offsetBytes.asIntBuffer();
+			map.position(map.position() + (count + 1) * 4);
+			
+			String[] names = new String[categoryCount];
+			for(int i = 0; i < categoryCount; i++)
+			{
+				byte[] name = new byte[map.getShort()];
+				map.get(name);
+				names[i] = categoryName(new String(name, UTF_8));
+			}
+			
+			ByteBuffer arenaBytes = map.slice();
+			if(arenaBytes.remaining() < arenaLength)
+				throw new IOException("Truncated packed word list file: " + file);
+			arenaBytes.limit(arenaLength);
+			
+			// The mapping stays valid after the channel is closed
+			return new PGCorpus(arenaBytes, offsetTable, count, names, starts);
+		}
+		finally
+		{
+			raf.close();
+		}
+	}
+	
+	/**
+	 * writes this corpus out in packed form
+	 * 
+	 * @param file the file to write
+	 * @throws IOException if the file can't be written
+	 */
+	public void write(File file) throws IOException
+	{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try
+		{
+			int arenaLength = offsets.get(wordCount);
+			
+			out.writeInt(MAGIC);
+			out.writeInt(categoryNames.length);
+			out.writeInt(wordCount);
+			out.writeInt(arenaLength);
+			for(int i = 0; i < categoryStarts.length; i++)
+				out.writeInt(categoryStarts[i]);
+			for(int i = 0; i <= wordCount; i++)
+				out.writeInt(offsets.get(i));
+			for(int i = 0; i < categoryNames.length; i++)
+			{
+				byte[] name = categoryNames[i].getBytes(UTF_8);
+				out.writeShort(name.length);
+				out.write(name);
+			}
+			ByteBuffer source = arena.duplicate();
+			source.position(0);
+			byte[] chunk = new byte[8192];
+			for(int remaining = arenaLength; remaining > 0; remaining -= chunk.length)
+			{
+				int length = Math.min(remaining, chunk.length);
+				source.get(chunk, 0, length);
+				out.write(chunk, 0, length);
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+	
+	/**
+	 * gives the number of words in this corpus
+	 * 
+	 * @return number of words across all categories
+	 */
+	public int size()
+	{
+		return wordCount;
+	}
+	
+	/**
+	 * decodes a word from the arena
+	 * 
+	 * @param id the word's ID
+	 * @return the word
+	 */
+	public String getWord(int id)
+	{
+		int start = offsets.get(id);
+		byte[] bytes = new byte[offsets.get(id + 1) - start];
+		for(int i = 0; i < bytes.length; i++)
+			bytes[i] = arena.get(start + i);
+		
+		return new String(bytes, UTF_8);
+	}
+	
+	/**
+	 * says whether a word, ignoring case, has an ID in a range that is
+	 * also in a selection
+	 * 
+	 * @param word the word to look up
+	 * @param start first word ID to accept
+	 * @param end one past the last word ID to accept
+	 * @param selection word IDs to accept, or <b>null</b> for the whole
+	 * range
+	 * @return <b>true</b> if the word is there, <b>false</b> otherwise
+	 */
+	public boolean contains(String word, int start, int end, BitSet selection)
+	{
+		return find(word, start, end, selection) != -1;
+	}
+	
+	/**
+	 * finds a word, ignoring case, in a range of word IDs
+	 * 
+	 * @param word the word to look up
+	 * @param start first word ID to accept
+	 * @param end one past the last word ID to accept
+	 * @return the word's ID, or -1 if it isn't in the range
+	 */
+	public int indexOf(String word, int start, int end)
+	{
+		return find(word, start, end, null);
+	}
+	
+	/**
+	 * looks a word up in the word index
+	 * 
+	 * @param word the word to look up
+	 * @param start first word ID to accept
+	 * @param end one past the last word ID to accept
+	 * @param selection word IDs to accept, or <b>null</b> for the whole
+	 * range
+	 * @return the first matching ID found, or -1 if there is none
+	 */
+	private int find(String word, int start, int end, BitSet selection)
+	{
+		int[] table = getWordIndex();
+		byte[] key = word.toLowerCase().getBytes(UTF_8);
+		int hash = FNV_OFFSET;
+		for(int i = 0; i < key.length; i++)
+			hash = (hash ^ (key[i] & 0xFF)) * FNV_PRIME;
+		
+		// The same word can be in several categories, so check every match
+		int mask = table.length - 1;
+		for(int slot = hash & mask; table[slot] != EMPTY; slot = (slot + 1) & mask)
+		{
+			int id = table[slot];
+			if((id >= start) && (id < end) && ((selection == null) || selection.get(id)) && matches(id, key))
+				return id;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * gives the word index, building it the first time
+	 * 
+	 * @return the open addressing table of word IDs (EMPTY if free)
+	 */
+	private int[] getWordIndex()
+	{
+		int[] table = wordIndex;
+		if(table != null)
+			return table;
+		
+		synchronized(this)
+		{
+			if(wordIndex == null)
+			{
+				// At most two thirds full, and a power of 2 for masking
+				int capacity = Integer.highestOneBit(Math.max(wordCount * 3 / 2, 1)) * 2;
+				table = new int[capacity];
+				Arrays.fill(table, EMPTY);
+				
+				int mask = capacity - 1;
+				for(int id = 0; id < wordCount; id++)
+				{
+					int slot = lowerHash(id) & mask;
+					while(table[slot] != EMPTY)
+						slot = (slot + 1) & mask;
+					table[slot] = id;
+				}
+				
+				wordIndex = table;
+			}
+			
+			return wordIndex;
+		}
+	}
+	
+	/**
+	 * hashes a word's lowercased UTF-8 bytes, straight from the arena
+	 * unless the word has non-ASCII characters
+	 * 
+	 * @param id the word's ID
+	 * @return the hash
+	 */
+	private int lowerHash(int id)
+	{
+		int start = offsets.get(id);
+		int end = offsets.get(id + 1);
+		int hash = FNV_OFFSET;
+		for(int i = start; i < end; i++)
+		{
+			byte b = arena.get(i);
+			if(b < 0)
+			{
+				// Non-ASCII, so lowercase it properly
+				byte[] lower = getWord(id).toLowerCase().getBytes(UTF_8);
+				hash = FNV_OFFSET;
+				for(int j = 0; j < lower.length; j++)
+					hash = (hash ^ (lower[j] & 0xFF)) * FNV_PRIME;
+				return hash;
+			}
+			
+			hash = (hash ^ toLower(b)) * FNV_PRIME;
+		}
+		
+		return hash;
+	}
+	
+	/**
+	 * says whether a word, lowercased, is a given lowercased word
+	 * 
+	 * @param id the word's ID
+	 * @param key the lowercased word's UTF-8 bytes
+	 * @return <b>true</b> if they match, <b>false</b> otherwise
+	 */
+	private boolean matches(int id, byte[] key)
+	{
+		int start = offsets.get(id);
+		int end = offsets.get(id + 1);
+		for(int i = start; i < end; i++)
+		{
+			byte b = arena.get(i);
+			if(b < 0) // non-ASCII, so lowercase it properly
+				return Arrays.equals(getWord(id).toLowerCase().getBytes(UTF_8), key);
+			if((i - start >= key.length) || (toLower(b) != key[i - start]))
+				return false;
+		}
+		
+		return end - start == key.length;
+	}
+	
+	/**
+	 * lowercases an ASCII byte
+	 * 
+	 * @param b the byte
+	 * @return the byte, lowercased if it is a capital letter
+	 */
+	private static int toLower(byte b)
+	{
+		return ((b >= 'A') && (b <= 'Z')) ? b + ('a' - 'A') : b;
+	}
+	
+	/**
+	 * makes a word list's name safe to send in a list of category names
+	 * 
+	 * @param name the word list's name
+	 * @return the name, trimmed and with every CATEGORY_SEPARATOR replaced
+	 */
+	private static String categoryName(String name)
+	{
+		String safe = name.trim().replace(PGServerThread.CATEGORY_SEPARATOR, SEPARATOR_REPLACEMENT);
+		if(!safe.equals(name))
+			PGLog.warn(PGLog.SERVER, "Renaming word list \"" + name + "\" to \"" + safe + "\"");
+		
+		return safe;
+	}
+	
+	/**
+	 * gives the number of word lists (categories) in this corpus
+	 * 
+	 * @return number of categories
+	 */
+	public int getCategoryCount()
+	{
+		return categoryNames.length;
+	}
+	
+	/**
+	 * gives the names of all categories
+	 * 
+	 * @return a copy of the category names
+	 */
+	public String[] getCategoryNames()
+	{
+		return categoryNames.clone();
+	}
+	
+	/**
+	 * gives the name of a category
+	 * 
+	 * @param c the category's index
+	 * @return the category's name
+	 */
+	public String getCategoryName(int c)
+	{
+		return categoryNames[c];
+	}
+	
+	/**
+	 * gives the first word ID of a category
+	 * 
+	 * @param c the category's index
+	 * @return the category's first word ID
+	 */
+	public int getCategoryStart(int c)
+	{
+		return categoryStarts[c];
+	}
+	
+	/**
+	 * gives the word ID just past the end of a category
+	 * 
+	 * @param c the category's index
+	 * @return one past the category's last word ID
+	 */
+	public int getCategoryEnd(int c)
+	{
+		return categoryStarts[c + 1];
+	}
+	
+	/**
+	 * finds the category a word belongs to
+	 * 
+	 * @param id the word's ID
+	 * @return the index of the category holding the word
+	 */
+	public int getCategoryOf(int id)
+	{
+		int low = 0;
+		int high = categoryNames.length - 1;
+		while(low < high)
+		{
+			int middle = (low + high + 1) / 2;
+			if(categoryStarts[middle] <= id)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * gives the play statistics for this corpus's words
+	 * 
+	 * @return this corpus's word stats
+	 */
+	public synchronized PGWordStats getStats()
+	{
+		if(stats == null)
+			stats = new PGWordStats(this);
+		
+		return stats;
+	}
+	
+	/**
+	 * takes over the word stats of the corpus this one replaces, so a
+	 * reload doesn't forget how words have played (call before this
+	 * corpus is used)
+	 * 
+	 * @param old the corpus being replaced
+	 */
+	public void takeStats(PGCorpus old)
+	{
+		PGWordStats oldStats;
+		synchronized(old)
+		{
+			oldStats = old.stats;
+		}
+		
+		if(oldStats != null)
+			getStats().carryOver(oldStats);
+	}
+	
+	/**
+	 * gives the word list for a single category
+	 * 
+	 * @param c the category's index
+	 * @return a new word list over that category's words
+	 */
+	public PGWordList getCategory(int c)
+	{
+		return new PGWordList(categoryNames[c], this, categoryStarts[c], categoryStarts[c + 1]);
+	}
+	
+	/**
+	 * creates a word list over the named categories, sharing a cached
+	 * union of their word IDs with any other lobby playing the same
+	 * categories (names that aren't in this corpus are ignored)
+	 * 
+	 * @param names the categories to play, or <b>null</b> for all
+	 * @return a new word list over those categories, or over every
+	 * category if none of the names match
+	 */
+	public PGWordList compile(String[] names)
+	{
+		if(names == null)
+			return compileAll();
+		
+		BitSet categories = new BitSet(categoryNames.length);
+		for(int i = 0; i < names.length; i++)
+			for(int c = 0; c < categoryNames.length; c++)
+				if(categoryNames[c].equalsIgnoreCase(names[i].trim()))
+					categories.set(c);
+		
+		int count = categories.cardinality();
+		if((count == 0) || (count == categoryNames.length))
+			return compileAll();
+		else if(count == 1)
+			return getCategory(categories.nextSetBit(0)); // a plain range, no union needed
+		
+		String name = "";
+		for(int c = categories.nextSetBit(0); c != -1; c = categories.nextSetBit(c + 1))
+			name += (name.length() == 0 ? "" : ", ") + categoryNames[c];
+		
+		return new PGWordList(name, this, union(categories));
+	}
+	
+	/**
+	 * gets the word IDs of a set of categories, building the union only if
+	 * no lobby is already using it
+	 * 
+	 * @param categories the categories to combine
+	 * @return the word IDs in those categories
+	 */
+	private synchronized BitSet union(BitSet categories)
+	{
+		WeakReference<BitSet> cached = unionCache.get(categories);
+		BitSet ids = (cached == null) ? null : cached.get();
+		if(ids != null)
+			return ids;
+		
+		// Evict unions no lobby holds anymore
+		Iterator<WeakReference<BitSet>> entries = unionCache.values().iterator();
+		while(entries.hasNext())
+			if(entries.next().get() == null)
+				entries.remove();
+		
+		ids = new BitSet(wordCount);
+		for(int c = categories.nextSetBit(0); c != -1; c = categories.nextSetBit(c + 1))
+			ids.set(categoryStarts[c], categoryStarts[c + 1]);
+		
+		unionCache.put(categories, new WeakReference<BitSet>(ids));
+		return ids;
+	}
+	
+	/**
+	 * creates a word list with all word lists combined (used for
+	 * public games)
+	 * 
+	 * @return a new word list containing all other word lists
+	 */
+	public PGWordList compileAll()
+	{
+		return new PGWordList(ALL_WORDLIST_NAME, this, 0, wordCount);
+	}
+	
+	/**
+	 * main - packs a directory of plain word list files into a single
+	 * packed corpus file the server can memory-map
+	 * 
+	 * @param args word list directory and output file
+	 */
+	public static void main(String[] args)
+	{
+		if(args.length != 2)
+		{
+			System.out.println("USAGE: PGCorpus [WORD LIST DIRECTORY] [OUTPUT FILE]");
+			System.exit(1);
+		}
+		
+		try
+		{
+			PGCorpus corpus = new PGCorpus(PGServer.initializeWordLists(new File(args[0])));
+			corpus.write(new File(args[1]));
+			System.out.println("Packed " + corpus.size() + " words in " + corpus.getCategoryCount()
+					+ " lists into " + args[1]);
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package pgserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * The PGFrame class holds a message already encoded the way
+ * DataOutputStream.writeUTF would write it (a two byte length followed
+ * by modified UTF-8), so a message going to a whole lobby is encoded
+ * once and the same bytes are written to every recipient.
+ * 
+ * A bundle frame carries several messages in one write, for state
+ * changes that used to take several (a round end, a score and a chat
+ * line, say).  Its message is HEADER_BUNDLE followed by each part as
+ * its length, a colon and the part itself.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGFrame {
+	
+	// DATA MEMBERS
+	private String message;
+	private String[] parts; // messages bundled in this frame (just message if not a bundle)
+	private byte[] bytes;
+	
+	/**
+	 * constructor for PGFrame
+	 * 
+	 * @param m the message to encode
+	 * @throws IllegalArgumentException if the message is too long for
+	 * writeUTF (over 65535 encoded bytes)
+	 */
+	public PGFrame(String m)
+	{
+		this(m, new String[] {m});
+	}
+	
+	/**
+	 * constructor for a bundle frame
+	 * 
+	 * @param messages the messages to bundle, in the order they apply
+	 * @throws IllegalArgumentException if the bundle is too long for
+	 * writeUTF
+	 */
+	public PGFrame(String[] messages)
+	{
+		this(bundle(messages), messages);
+	}
+	
+	/**
+	 * encodes a message
+	 * 
+	 * @param m the message to encode
+	 * @param p the messages it carries
+	 */
+	private PGFrame(String m, String[] p)
+	{
+		message = m;
+		parts = p;
+		
+		try
+		{
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(m.length() + 2);
+			DataOutputStream out = new DataOutputStream(buffer);
+			out.writeUTF(m);
+			bytes = buffer.toByteArray();
+		}
+		catch(IOException e)
+		{
+			throw new IllegalArgumentException("Message too long to send", e);
+		}
+	}
+	
+	/**
+	 * gives the message this frame was encoded from
+	 * 
+	 * @return the message
+	 */
+	public String getMessage()
+	{
+		return message;
+	}
+	
+	/**
+	 * gives the messages this frame carries
+	 * 
+	 * @return the bundled messages, or just the message if this frame
+	 * isn't a bundle (not a copy, so don't modify it)
+	 */
+	public String[] getParts()
+	{
+		return parts;
+	}
+	
+	/**
+	 * gives the encoded message (not a copy, so don't modify it)
+	 * 
+	 * @return the bytes to write to a client
+	 */
+	public byte[] getBytes()
+	{
+		return bytes;
+	}
+	
+	/**
+	 * joins messages into a bundle message
+	 * 
+	 * @param messages the messages to bundle
+	 * @return the bundle message
+	 */
+	private static String bundle(String[] messages)
+	{
+		StringBuilder bundle = new StringBuilder(PGServer.HEADER_BUNDLE);
+		for(int i = 0; i < messages.length; i++)
+			bundle.append(messages[i].length()).append(':').append(messages[i]);
+		
+		return bundle.toString();
+	}
+	
+	/**
+	 * splits a bundle message back into its messages
+	 * 
+	 * @param bundle a message starting with HEADER_BUNDLE
+	 * @return the bundled messages, in order
+	 * @throws IllegalArgumentException if the bundle is malformed
+	 */
+	public static String[] unbundle(String bundle)
+	{
+		ArrayList<String> messages = new ArrayList<String>();
+		int at = PGServer.HEADER_BUNDLE.length();
+		while(at < bundle.length())
+		{
+			int colon = bundle.indexOf(':', at);
+			if(colon == -1)
+				throw new IllegalArgumentException("Malformed bundle");
+			
+			int length = Integer.parseInt(bundle.substring(at, colon)); // NumberFormatException is an IllegalArgumentException
+			if((length < 0) || (length > bundle.length() - colon - 1))
+				throw new IllegalArgumentException("Malformed bundle");
+			
+			int end = colon + 1 + length;
+			messages.add(bundle.substring(colon + 1, end));
+			at = end;
+		}
+		
+		return messages.toArray(new String[messages.size()]);
+	}
+}
@@ -0,0 +1,151 @@
+package pgserver;
+
+/**
+ * The PGGuessMatcher class checks guesses against the word currently
+ * being drawn and says whether a wrong guess was a near miss.  Distance
+ * is a bounded Damerau-Levenshtein (optimal string alignment) distance
+ * that only fills a band of width 2k+1 around the diagonal and gives up
+ * as soon as every cell in a row is already past the bound.
+ * 
+ * The target is lowercased once up front and the DP rows are allocated
+ * once per word, so checking a guess does not allocate.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGGuessMatcher {
+	
+	// CONSTANTS
+	public static final int DEFAULT_MAX_DISTANCE = 2;
+	
+	// DATA MEMBERS
+	private char[] target;
+	private int maxDistance;
+	private int[] rowPrevPrev;
+	private int[] rowPrev;
+	private int[] rowCurr;
+	
+	/**
+	 * constructor for a matcher using the default maximum distance
+	 * 
+	 * @param word the word being drawn
+	 */
+	public PGGuessMatcher(String word)
+	{
+		this(word, DEFAULT_MAX_DISTANCE);
+	}
+	
+	/**
+	 * constructor for PGGuessMatcher
+	 * 
+	 * @param word the word being drawn
+	 * @param max largest edit distance still counted as close
+	 */
+	public PGGuessMatcher(String word, int max)
+	{
+		maxDistance = max;
+		target = new char[word.length()];
+		for(int i = 0; i < target.length; i++)
+			target[i] = Character.toLowerCase(word.charAt(i));
+		
+		rowPrevPrev = new int[target.length + 1];
+		rowPrev = new int[target.length + 1];
+		rowCurr = new int[target.length + 1];
+	}
+	
+	/**
+	 * says whether a guess is one to maxDistance edits away from the
+	 * target (an exact match is not close, it is correct)
+	 * 
+	 * @param guess the guess to check
+	 * @return <b>true</b> if the guess is a near miss, <b>false</b>
+	 * otherwise
+	 */
+	public boolean isClose(String guess)
+	{
+		int d = distance(guess);
+		return (d > 0) && (d <= maxDistance);
+	}
+	
+	/**
+	 * computes the case-insensitive edit distance between a guess and
+	 * the target, counting adjacent transpositions as one edit
+	 * 
+	 * @param guess the guess to measure
+	 * @return the edit distance, or maxDistance + 1 if the guess is
+	 * further away than maxDistance
+	 */
+	public synchronized int distance(String guess)
+	{
+		int n = guess.length();
+		int m = target.length;
+		int k = maxDistance;
+		int far = k + 1;
+		
+		if(Math.abs(n - m) > k)
+			return far;
+		
+		// Row 0: distance from the empty guess prefix
+		for(int j = 0; j <= m; j++)
+			rowPrev[j] = (j <= k) ? j : far;
+		
+		char prevChar = 0;
+		for(int i = 1; i <= n; i++)
+		{
+			char c = Character.toLowerCase(guess.charAt(i - 1));
+			int low = Math.max(1, i - k);
+			int high = Math.min(m, i + k);
+			int rowMin = far;
+			
+			rowCurr[0] = (i <= k) ? i : far;
+			if(low == 1)
+				rowMin = rowCurr[0];
+			else
+				rowCurr[low - 1] = far;
+			
+			for(int j = low; j <= high; j++)
+			{
+				int cost = (c == target[j - 1]) ? 0 : 1;
+				int v = rowPrev[j - 1] + cost;
+				if(rowPrev[j] + 1 < v)
+					v = rowPrev[j] + 1;
+				if(rowCurr[j - 1] + 1 < v)
+					v = rowCurr[j - 1] + 1;
+				if((i > 1) && (j > 1) && (c == target[j - 2]) && (prevChar == target[j - 1])
+						&& (rowPrevPrev[j - 2] + 1 < v))
+					v = rowPrevPrev[j - 2] + 1;
+				if(v > far)
+					v = far;
+				
+				rowCurr[j] = v;
+				if(v < rowMin)
+					rowMin = v;
+			}
+			if(high < m)
+				rowCurr[high + 1] = far;
+			
+			// Every path through this row is already too long
+			if(rowMin > k)
+				return far;
+			
+			int[] recycled = rowPrevPrev;
+			rowPrevPrev = rowPrev;
+			rowPrev = rowCurr;
+			rowCurr = recycled;
+			prevChar = c;
+		}
+		
+		return Math.min(rowPrev[m], far);
+	}
+	
+	/**
+	 * gives the largest distance this matcher counts as close
+	 * 
+	 * @return maximum close distance
+	 */
+	public int getMaxDistance()
+	{
+		return maxDistance;
+	}
+}
@@ -22,6 +22,7 @@ public class PGLobby {
 	public static final int TEAM_1 = 1;
 	public static final int TEAM_2 = 2;
 	public static final int TEAM_WAIT = -1;
+	public static final int CHAT_HISTORY_SIZE = 50; // chat lines kept for players who join late
 	private static final int MIN_PLAYERS = 4; // players needed to start game
 	private static final int MAX_PLAYERS = 10;
 	private static final int KEY_LENGTH = 8;
@@ -42,7 +43,12 @@ public class PGLobby {
 	private boolean isPrivate;
 	private String key; // private key (if necessary)
 	private PGWordList wordList;
+	private PGCorpus corpus; // corpus wordList was compiled from (if any)
+	private String[] categories; // categories wordList was compiled from (null for all)
 	private String currentWord;
+	private PGGuessMatcher guessMatcher;
+	private int currentWordID;
+	private long roundStartMillis;
 	private ArrayList<PGServerThread> team1;
 	private ArrayList<PGServerThread> team2;
 	private PGServerThread team1drawer;
@@ -57,6 +63,10 @@ public class PGLobby {
 	private Timer timer;
 	private int customTimer;
 	private int customScore;
+	private PGFrame rosterFrame; // encoded player list, null when out of date
+	private PGFrame[] chatHistory; // ring of the latest chat messages
+	private int chatHistoryNext; // slot the next chat message goes in
+	private int chatHistoryCount;
 	
 	/**
 	 * constructor for a picture game lobby
@@ -83,6 +93,9 @@ public class PGLobby {
 		team1guesses = new ArrayList<String>();
 		team2guesses = new ArrayList<String>();
 		timer = new Timer(this);
+		chatHistory = new PGFrame[CHAT_HISTORY_SIZE];
+		chatHistoryNext = 0;
+		chatHistoryCount = 0;
 	
 	}
 	
@@ -108,6 +121,28 @@ public class PGLobby {
 			customScore = score;
 	}
 	
+	/**
+	 * records which corpus this lobby's word list was compiled from, so
+	 * the lobby can recompile it when the server reloads its word lists
+	 * 
+	 * @param c the corpus the word list came from
+	 */
+	void setCorpus(PGCorpus c)
+	{
+		corpus = c;
+	}
+	
+	/**
+	 * records which categories this lobby plays, so the same categories
+	 * are used when the word lists are reloaded
+	 * 
+	 * @param c names of the categories, or <b>null</b> for all
+	 */
+	void setCategories(String[] c)
+	{
+		categories = c;
+	}
+	
 	/**
 	 * get a list of clients on the server
 	 * 
@@ -129,7 +164,7 @@ public class PGLobby {
 		numPlayers++;
 		
 		if(active && !waiting)
-			placeOnTeam(newClientThread);
+			assignTeam(newClientThread); // the join update carries the team
 		if(inRound)
 			newClientThread.setDrawing(false);
 		if(active && waiting)
@@ -137,6 +172,10 @@ public class PGLobby {
 			waitingClientThreads.add(newClientThread);
 			newClientThread.setTeam(TEAM_WAIT);
 		}
+		
+		invalidateRoster();
+		if(parent != null)
+			parent.playerJoined(this, newClientThread);
 	}
 	
 	/**
@@ -155,12 +194,12 @@ public class PGLobby {
 			team2.remove(client);
 		if(waitingClientThreads != null)
 			waitingClientThreads.remove(client);
+		invalidateRoster();
 		
 		if(inRound && client.isDrawing())
 			parent.drawerDisconnected(this, client.getTeam());
 		
-		for(int i = 0; i < clientThreads.size(); i++)
-			parent.sendLobbyPlayerList(clientThreads.get(i));
+		parent.playerLeft(this, client);
 		
 		// Check if lobby drops below min players
 		if((clientThreads.size() < 4) && active)
@@ -168,6 +207,7 @@ public class PGLobby {
 			active = false;
 			waiting = false;
 			inRound = false;
+			invalidateRoster();
 			
 			reset();
 			parent.lobbyGameOver(this, NO_WIN);
@@ -250,6 +290,17 @@ public class PGLobby {
 	 * Places each player on a team
 	 */
 	public void placeOnTeam(PGServerThread client)
+	{
+		assignTeam(client);
+		parent.playerTeamChanged(this, client);
+	}
+	
+	/**
+	 * Places a player on the smaller team without telling anyone
+	 * 
+	 * @param client the player to place
+	 */
+	private void assignTeam(PGServerThread client)
 	{
 		if(team1.size() > team2.size())
 		{
@@ -278,6 +329,8 @@ public class PGLobby {
 			}
 			
 		}
+		
+		invalidateRoster();
 	}
 	
 	/**
@@ -289,8 +342,10 @@ public class PGLobby {
 	 */
 	public void placeOnTeamIterator(int numClients)
 	{
+		// Callers send everyone a full player list afterwards instead of
+		// one team update per player
 		for(int i = 0; i < numClients; i++)
-			placeOnTeam(clientThreads.get(i));
+			assignTeam(clientThreads.get(i));
 	}
 
 	/**
@@ -321,6 +376,7 @@ public class PGLobby {
 		// Set lobby state to active
 		active = true;
 		waiting = false;
+		invalidateRoster();
 		
 		// Add all players to teams
 		team1 = new ArrayList<PGServerThread>();
@@ -330,6 +386,7 @@ public class PGLobby {
 		// Set wait time
 		inRound = false;
 		timer.setCurrentTime(DEFAULT_POST_ROUND_TIME);
+		parent.sendDeadline(this);
 		
 		// Start timer
 		if(!timer.isActive())
@@ -392,6 +449,9 @@ public class PGLobby {
 			else if(guesser.getTeam() == TEAM_2)
 				team2guesses.add(guess);
 			
+			if(guesser.getTeam() == TEAM_1 || guesser.getTeam() == TEAM_2)
+				parent.sendGuessAdded(this, guesser.getTeam(), guess);
+			
 			if(guess.equalsIgnoreCase(currentWord) && 
 					(guesser.getTeam() == TEAM_1 || guesser.getTeam() == TEAM_2)) // Correct guess
 			{
@@ -405,8 +465,14 @@ public class PGLobby {
 					team2score++;
 				}
 				
+				recordResult(true);
 				parent.roundEnded(this, true, guesser.getUsername(), guess);
 			}
+			else if(guessMatcher.isClose(guess) && !wordList.contains(guess)) // Near miss
+			{
+				// Other words from the list are plain wrong answers, not typos
+				parent.sendCloseGuess(guesser, guess);
+			}
 		}
 	}
 	
@@ -425,6 +491,7 @@ public class PGLobby {
 			active = false;
 			waiting = false;
 			inRound = false;
+			invalidateRoster();
 			
 			reset();
 			parent.lobbyGameOver(this, NO_WIN);
@@ -438,20 +505,43 @@ public class PGLobby {
 		// Select drawers for each team
 		selectDrawers();
 		
+		// Pick up reloaded word lists between rounds
+		if((corpus != null) && (parent.getCorpus() != corpus))
+		{
+			corpus = parent.getCorpus();
+			wordList = corpus.compile(categories);
+		}
+		
 		// Select word
 		currentWord = wordList.getRandomWord();
+		currentWordID = wordList.getLastWordID();
+		guessMatcher = new PGGuessMatcher(currentWord);
+		roundStartMillis = System.currentTimeMillis();
 		
 		// Send out roles
 		parent.sendRoles(this);
 		
 		// Start timer
 		timer.setCurrentTime(customTimer);
+		parent.sendDeadline(this);
 		
 		inRound = true;
 		
 		waiting = true;
 	}
 	
+	/**
+	 * records whether the current word was guessed and how long it took
+	 * 
+	 * @param solved <b>true</b> if the word was guessed, <b>false</b>
+	 * on a timeout
+	 */
+	private void recordResult(boolean solved)
+	{
+		int seconds = (int) ((System.currentTimeMillis() - roundStartMillis) / 1000);
+		wordList.recordResult(currentWordID, solved, seconds, customTimer);
+	}
+	
 	/**
 	 * ends a round and checks if the game is over, setting
 	 * internal lobby state to say the game has been won if
@@ -483,15 +573,13 @@ public class PGLobby {
 			waitingClientThreads = new ArrayList<PGServerThread>();
 		}
 		
-		// Update player lists
-		updatePlayerList();
-		
 		// Begin wait time
 		timer.setCurrentTime(DEFAULT_POST_ROUND_TIME);
+		parent.sendDeadline(this);
 	}
 	
 	/**
-	 * Refreshes the server's team division
+	 * Sends every player the full player list (after teams are regrouped)
 	 */
 	private void updatePlayerList() 
 	{
@@ -509,8 +597,79 @@ public class PGLobby {
 		wordList.reset();
 		team1.clear();
 		team2.clear();
+		invalidateRoster();
+		placeOnTeamIterator(clientThreads.size()); // lobbyGameOver sends the new player list
+	}
+	
+	/**
+	 * gives the lobby's player list as a ready-to-send frame, encoding it
+	 * only when membership or teams have changed since the last call
+	 * 
+	 * The snapshot is HEADER_CLIENT_LIST, then 1 if the lobby is playing
+	 * or 0 if not, then one line per player holding the player's team, a
+	 * space and the player's username.
+	 * 
+	 * @return the HEADER_CLIENT_LIST frame for this lobby
+	 */
+	public synchronized PGFrame getRosterFrame()
+	{
+		if(rosterFrame != null)
+			return rosterFrame;
+		
+		StringBuilder roster = new StringBuilder(PGServer.HEADER_CLIENT_LIST);
+		roster.append(active ? '1' : '0').append('\n');
 		for(int i = 0; i < clientThreads.size(); i++)
-			placeOnTeam(clientThreads.get(i));
+		{
+			PGServerThread curr = clientThreads.get(i);
+			roster.append(curr.getTeam()).append(' ').append(curr.getUsername()).append('\n');
+		}
+		
+		rosterFrame = new PGFrame(roster.toString());
+		return rosterFrame;
+	}
+	
+	/**
+	 * remembers a chat message for players who join later, replacing the
+	 * oldest one once CHAT_HISTORY_SIZE are kept
+	 * 
+	 * @param frame the chat message as sent to the lobby
+	 */
+	public void addChatHistory(PGFrame frame)
+	{
+		synchronized(chatHistory)
+		{
+			chatHistory[chatHistoryNext] = frame;
+			chatHistoryNext = (chatHistoryNext + 1) % chatHistory.length;
+			if(chatHistoryCount < chatHistory.length)
+				chatHistoryCount++;
+		}
+	}
+	
+	/**
+	 * gives the chat messages kept for players who join late
+	 * 
+	 * @return the kept chat messages, oldest first
+	 */
+	public PGFrame[] getChatHistory()
+	{
+		synchronized(chatHistory)
+		{
+			PGFrame[] history = new PGFrame[chatHistoryCount];
+			int oldest = (chatHistoryNext - chatHistoryCount + chatHistory.length) % chatHistory.length;
+			for(int i = 0; i < chatHistoryCount; i++)
+				history[i] = chatHistory[(oldest + i) % chatHistory.length];
+			
+			return history;
+		}
+	}
+	
+	/**
+	 * marks the cached player list out of date (call after changing
+	 * membership or teams, so a render in progress can't be kept)
+	 */
+	private synchronized void invalidateRoster()
+	{
+		rosterFrame = null;
 	}
 	
 	/**
@@ -576,7 +735,18 @@ public class PGLobby {
 	}
 	
 	/**
-	 * checks if timer is up and notifies players of time
+	 * gives the time at which the current round or wait time ends
+	 * 
+	 * @return the deadline in milliseconds since the epoch (server clock)
+	 */
+	public long getDeadline()
+	{
+		return timer.getDeadline();
+	}
+	
+	/**
+	 * checks if timer is up and moves the lobby on (clients count down
+	 * to the deadline themselves, so ticks aren't sent to them)
 	 * 
 	 * @param time time left in the timer
 	 */
@@ -584,11 +754,9 @@ public class PGLobby {
 	{
 		if(active)
 		{
-			for(int i = 0; i < clientThreads.size(); i++)
-				parent.sendTimerUpdate(clientThreads.get(i), time);
-			
 			if(time == 0 && inRound) // Round timeout
 			{
+				recordResult(false);
 				parent.roundEnded(this, false, null, null);
 			}
 			else if(time == 0 && !inRound)
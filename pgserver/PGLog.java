@@ -0,0 +1,303 @@
+package pgserver;
+
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The PGLog class is the server's log.  Callers only claim a slot in a
+ * lock-free ring buffer and drop their entry in it; a background thread
+ * formats entries and prints them, so logging never blocks a lobby or
+ * client thread on console I/O.  If the ring is full the entry is
+ * dropped and counted rather than waited on.
+ * 
+ * Each category (server, network, lobby, gameplay) has its own level, which can
+ * be set at startup with -Dpgserver.log.network=DEBUG (and so on) or
+ * changed at runtime with setLevel.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGLog {
+	
+	// CONSTANTS - Levels
+	public static final int OFF = -1;
+	public static final int ERROR = 0;
+	public static final int WARN = 1;
+	public static final int INFO = 2;
+	public static final int DEBUG = 3;
+	private static final String[] LEVEL_NAMES = {"ERROR", "WARN", "INFO", "DEBUG"};
+	
+	// CONSTANTS - Categories
+	public static final int NETWORK = 0;
+	public static final int LOBBY = 1;
+	public static final int GAMEPLAY = 2;
+	public static final int SERVER = 3; // startup and word lists
+	private static final String[] CATEGORY_NAMES = {"network", "lobby", "gameplay", "server"};
+	
+	// CONSTANTS - Other
+	private static final int CAPACITY = 8192; // must be a power of 2
+	private static final long IDLE_NANOS = 5000000; // writer's nap when the ring is empty
+	private static final String PROPERTY_PREFIX = "pgserver.log.";
+	
+	// DATA MEMBERS
+	private static final AtomicIntegerArray levels = new AtomicIntegerArray(CATEGORY_NAMES.length);
+	private static final AtomicReferenceArray<Entry> ring = new AtomicReferenceArray<Entry>(CAPACITY);
+	private static final AtomicLong tail = new AtomicLong(); // next slot to claim
+	private static final AtomicLong dropped = new AtomicLong();
+	private static volatile long head = 0; // next slot to print, only moved by the writer
+	
+	static
+	{
+		for(int c = 0; c < CATEGORY_NAMES.length; c++)
+			levels.set(c, parseLevel(System.getProperty(PROPERTY_PREFIX + CATEGORY_NAMES[c]), INFO));
+		
+		Thread writer = new Thread("PGLog") {
+			public void run()
+			{
+				drain();
+			}
+		};
+		writer.setDaemon(true);
+		writer.start();
+	}
+	
+	/**
+	 * no instances, everything is static
+	 */
+	private PGLog()
+	{
+	}
+	
+	/**
+	 * says whether messages of a level would be logged for a category, so
+	 * callers can skip building messages that would be thrown away
+	 * 
+	 * @param category the category (NETWORK, LOBBY, GAMEPLAY or SERVER)
+	 * @param level the level (ERROR, WARN, INFO or DEBUG)
+	 * @return <b>true</b> if the message would be logged, <b>false</b>
+	 * otherwise
+	 */
+	public static boolean isEnabled(int category, int level)
+	{
+		return level <= levels.get(category);
+	}
+	
+	/**
+	 * sets the most detailed level logged for a category
+	 * 
+	 * @param category the category to change
+	 * @param level the new level (OFF, ERROR, WARN, INFO or DEBUG)
+	 */
+	public static void setLevel(int category, int level)
+	{
+		levels.set(category, level);
+	}
+	
+	/**
+	 * gives the most detailed level logged for a category
+	 * 
+	 * @param category the category
+	 * @return the category's level
+	 */
+	public static int getLevel(int category)
+	{
+		return levels.get(category);
+	}
+	
+	/**
+	 * logs an error
+	 * 
+	 * @param category the message's category
+	 * @param message the message
+	 */
+	public static void error(int category, String message)
+	{
+		log(category, ERROR, message, null);
+	}
+	
+	/**
+	 * logs a warning
+	 * 
+	 * @param category the message's category
+	 * @param message the message
+	 */
+	public static void warn(int category, String message)
+	{
+		log(category, WARN, message, null);
+	}
+	
+	/**
+	 * logs a warning caused by an exception (whose stack trace is only
+	 * printed when the category is at DEBUG)
+	 * 
+	 * @param category the message's category
+	 * @param message the message
+	 * @param cause the exception
+	 */
+	public static void warn(int category, String message, Throwable cause)
+	{
+		log(category, WARN, message, cause);
+	}
+	
+	/**
+	 * logs an informational message
+	 * 
+	 * @param category the message's category
+	 * @param message the message
+	 */
+	public static void info(int category, String message)
+	{
+		log(category, INFO, message, null);
+	}
+	
+	/**
+	 * logs a debugging message
+	 * 
+	 * @param category the message's category
+	 * @param message the message
+	 */
+	public static void debug(int category, String message)
+	{
+		log(category, DEBUG, message, null);
+	}
+	
+	/**
+	 * gives the number of messages dropped because the ring was full
+	 * 
+	 * @return messages dropped since startup
+	 */
+	public static long getDropped()
+	{
+		return dropped.get();
+	}
+	
+	/**
+	 * queues a message for the writer if its level is enabled
+	 * 
+	 * @param category the message's category
+	 * @param level the message's level
+	 * @param message the message
+	 * @param cause an exception to report with it, or <b>null</b>
+	 */
+	private static void log(int category, int level, String message, Throwable cause)
+	{
+		if(!isEnabled(category, level))
+			return;
+		
+		Entry entry = new Entry(category, level, message, cause);
+		while(true)
+		{
+			long slot = tail.get();
+			if(slot - head >= CAPACITY)
+			{
+				dropped.incrementAndGet();
+				return;
+			}
+			
+			if(tail.compareAndSet(slot, slot + 1))
+			{
+				ring.set((int) slot & (CAPACITY - 1), entry);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * prints entries in order as they arrive, forever
+	 */
+	private static void drain()
+	{
+		SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+		long reportedDrops = 0;
+		
+		while(true)
+		{
+			long drops = dropped.get();
+			if(drops != reportedDrops)
+			{
+				System.err.println("WARN [log] " + (drops - reportedDrops) + " log messages dropped");
+				reportedDrops = drops;
+			}
+			
+			int index = (int) head & (CAPACITY - 1);
+			Entry entry = ring.get(index);
+			if(entry == null)
+			{
+				// Empty, or a claimed slot not filled in yet
+				LockSupport.parkNanos(IDLE_NANOS);
+				continue;
+			}
+			
+			ring.set(index, null);
+			head++;
+			
+			PrintStream out = (entry.level <= WARN) ? System.err : System.out;
+			out.println(time.format(new Date(entry.millis)) + " " + LEVEL_NAMES[entry.level]
+					+ " [" + CATEGORY_NAMES[entry.category] + "] " + entry.message);
+			if(entry.cause != null)
+			{
+				if(isEnabled(entry.category, DEBUG))
+					entry.cause.printStackTrace(out);
+				else
+					out.println("\t" + entry.cause);
+			}
+		}
+	}
+	
+	/**
+	 * reads a level name
+	 * 
+	 * @param name a level name (e.g. "debug"), or <b>null</b>
+	 * @param fallback level to use if the name isn't a level
+	 * @return the level
+	 */
+	private static int parseLevel(String name, int fallback)
+	{
+		if(name == null)
+			return fallback;
+		if(name.equalsIgnoreCase("OFF"))
+			return OFF;
+		
+		for(int l = 0; l < LEVEL_NAMES.length; l++)
+			if(LEVEL_NAMES[l].equalsIgnoreCase(name))
+				return l;
+		
+		return fallback;
+	}
+	
+	/**
+	 * one queued log message
+	 */
+	private static class Entry {
+		
+		// DATA MEMBERS
+		private final long millis;
+		private final int category;
+		private final int level;
+		private final String message;
+		private final Throwable cause;
+		
+		/**
+		 * constructor for Entry
+		 * 
+		 * @param c category
+		 * @param l level
+		 * @param m message
+		 * @param t exception or <b>null</b>
+		 */
+		Entry(int c, int l, String m, Throwable t)
+		{
+			millis = System.currentTimeMillis();
+			category = c;
+			level = l;
+			message = m;
+			cause = t;
+		}
+	}
+}
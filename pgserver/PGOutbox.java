@@ -0,0 +1,345 @@
+package pgserver;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * The PGOutbox class queues messages for one client and writes them from
+ * its own thread, so a slow connection never holds up the thread sending
+ * to it.  Messages go in one of two lanes: drawing data, and everything
+ * else (control).  Queued control messages are always written before
+ * queued drawing data, so a role or round end doesn't wait behind a
+ * drawer's scribbling.
+ * 
+ * Messages that wipe the client's canvas (a Clear, a role or a round or
+ * game end) discard the drawing data still queued, since the client
+ * would only paint it and wipe it again, or paint it onto the next
+ * round.  Writes are buffered and flushed once both lanes are empty.
+ * 
+ * State messages where only the newest copy matters (deadline, score,
+ * player list and guess list snapshots) are conflated: queuing one
+ * supersedes any older copy still waiting, which the writer then skips.
+ * The newest copy keeps its place at the back of the queue, so updates
+ * queued before it can't undo it.  A client that falls behind catches
+ * up with one message per state instead of replaying every change.
+ * 
+ * Neither lane grows without limit when a client stops reading.  Past
+ * MAX_DRAWING queued drawing messages the oldest point is dropped (the
+ * client's picture loses detail from its earliest strokes, not its
+ * newest).  Release and Clear markers are never dropped, so strokes are
+ * never joined together, and a Release right after another is not
+ * queued at all, so the lane always has points to drop.  Past
+ * MAX_CONTROL control messages the client is too far behind to catch up,
+ * so its connection is closed and it is removed like any lost client.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGOutbox extends Thread {
+	
+	// CONSTANTS
+	public static final int LANE_CONTROL = 0;
+	public static final int LANE_DRAWING = 1;
+	public static final int MAX_DRAWING = 4096; // queued drawing messages before the oldest point is dropped
+	public static final int MAX_CONTROL = 1024; // queued control messages before the client is disconnected
+	private static final int MAX_CONTROL_HELD = MAX_CONTROL * 4; // counting superseded copies not yet skipped
+	private static final int BUFFER_SIZE = 8192;
+	private static final String[] CONFLATED = {PGServer.HEADER_DEADLINE,
+		PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_SCORE, PGServer.HEADER_CLIENT_LIST,
+		PGServer.HEADER_GUESS_LIST};
+	
+	// DATA MEMBERS
+	private OutputStream connection; // the socket's stream, closed to disconnect the client
+	private OutputStream output;
+	private ArrayDeque<PGFrame> control;
+	private ArrayDeque<PGFrame> drawing;
+	private HashMap<String, PGFrame> latest; // conflation key -> newest queued copy
+	private int superseded; // queued control messages the writer will skip
+	private int dropped; // drawing points dropped because MAX_DRAWING were queued
+	private boolean open;
+	private String clientName; // for logging
+	
+	/**
+	 * constructor for PGOutbox
+	 * 
+	 * @param out the client's socket output stream
+	 * @param name name of the client (for logging)
+	 */
+	public PGOutbox(OutputStream out, String name)
+	{
+		super("PGOutbox " + name);
+		setDaemon(true);
+		connection = out;
+		output = new BufferedOutputStream(out, BUFFER_SIZE);
+		control = new ArrayDeque<PGFrame>();
+		drawing = new ArrayDeque<PGFrame>();
+		latest = new HashMap<String, PGFrame>();
+		superseded = 0;
+		dropped = 0;
+		open = true;
+		clientName = name;
+	}
+	
+	/**
+	 * queues a message for the client
+	 * 
+	 * @param frame the message
+	 */
+	public synchronized void send(PGFrame frame)
+	{
+		if(!open)
+			return;
+		
+		String message = frame.getMessage();
+		String[] parts = frame.getParts();
+		for(int i = 0; i < parts.length; i++)
+			if(wipesCanvas(parts[i]))
+				drawing.clear();
+		
+		if(laneOf(message) == LANE_DRAWING)
+		{
+			if(isMarker(message) && !drawing.isEmpty() && drawing.peekLast().getMessage().equals(message))
+				return; // a second Release in a row changes nothing
+			
+			if((drawing.size() >= MAX_DRAWING) && dropOldestPoint())
+				dropped++;
+			drawing.add(frame);
+		}
+		else
+		{
+			String key = keyOf(message);
+			if((key != null) && (latest.put(key, frame) != null))
+				superseded++;
+			
+			control.add(frame);
+			if((control.size() - superseded > MAX_CONTROL) || (control.size() > MAX_CONTROL_HELD))
+			{
+				disconnect();
+				return;
+			}
+		}
+		
+		notify();
+	}
+	
+	/**
+	 * queues several messages for the client without letting anything
+	 * else in between them
+	 * 
+	 * @param frames the messages, in order
+	 */
+	public synchronized void send(PGFrame[] frames)
+	{
+		for(int i = 0; i < frames.length; i++)
+			send(frames[i]);
+	}
+	
+	/**
+	 * stops writing and drops anything still queued
+	 */
+	public synchronized void close()
+	{
+		open = false;
+		control.clear();
+		drawing.clear();
+		latest.clear();
+		superseded = 0;
+		notify();
+	}
+	
+	/**
+	 * drops the oldest queued drawing point, leaving markers in place
+	 * 
+	 * @return <b>true</b> if a point was dropped, <b>false</b> if the
+	 * lane only holds markers
+	 */
+	private boolean dropOldestPoint()
+	{
+		Iterator<PGFrame> it = drawing.iterator();
+		while(it.hasNext())
+			if(!isMarker(it.next().getMessage()))
+			{
+				it.remove();
+				return true;
+			}
+		
+		return false;
+	}
+	
+	/**
+	 * closes the client's connection because it has stopped reading (its
+	 * thread then removes it like any lost client)
+	 */
+	private void disconnect()
+	{
+		PGLog.warn(PGLog.NETWORK, "Disconnecting " + clientName + ", over " + MAX_CONTROL + " messages behind");
+		close();
+		
+		try
+		{
+			connection.close(); // not output, whose close would flush to the stalled client
+		}
+		catch(IOException e)
+		{
+			// Closing anyway
+		}
+	}
+	
+	/**
+	 * says whether messages are still being taken
+	 * 
+	 * @return <b>true</b> if open, <b>false</b> once closed
+	 */
+	public synchronized boolean isOpen()
+	{
+		return open;
+	}
+	
+	/**
+	 * gives the number of drawing points dropped because too many were
+	 * queued
+	 * 
+	 * @return drawing points dropped
+	 */
+	public synchronized int getDropped()
+	{
+		return dropped;
+	}
+	
+	/**
+	 * gives the number of messages waiting in a lane
+	 * 
+	 * @param lane LANE_CONTROL or LANE_DRAWING
+	 * @return messages queued
+	 */
+	public synchronized int getQueued(int lane)
+	{
+		return (lane == LANE_DRAWING) ? drawing.size() : control.size() - superseded;
+	}
+	
+	@Override
+	/**
+	 * writes queued messages, control lane first, until closed
+	 */
+	public void run()
+	{
+		try
+		{
+			while(true)
+			{
+				PGFrame next;
+				boolean last;
+				synchronized(this)
+				{
+					while(open && control.isEmpty() && drawing.isEmpty())
+						wait();
+					if(!open)
+						break;
+					
+					next = control.isEmpty() ? drawing.poll() : nextControl();
+					last = control.isEmpty() && drawing.isEmpty();
+				}
+				
+				if(next != null)
+					output.write(next.getBytes());
+				if(last) // even if nothing was written just now
+					output.flush();
+			}
+		}
+		catch(IOException e)
+		{
+			PGLog.warn(PGLog.NETWORK, "Could not send message to " + clientName, e);
+			close();
+		}
+		catch(InterruptedException e)
+		{
+			PGLog.error(PGLog.NETWORK, "Interrupt called on outbox (this shouldn't happen)");
+		}
+	}
+	
+	/**
+	 * takes the next control message that hasn't been superseded
+	 * 
+	 * @return the message, or <b>null</b> if the control lane only
+	 * held superseded messages
+	 */
+	private PGFrame nextControl()
+	{
+		while(!control.isEmpty())
+		{
+			PGFrame frame = control.poll();
+			String key = keyOf(frame.getMessage());
+			if(key == null)
+				return frame;
+			else if(latest.get(key) == frame)
+			{
+				latest.remove(key);
+				return frame;
+			}
+			
+			superseded--;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * gives the conflation key of a message
+	 * 
+	 * @param message the message
+	 * @return the key (the message's header), or <b>null</b> if every
+	 * copy of the message must be delivered
+	 */
+	public static String keyOf(String message)
+	{
+		for(int i = 0; i < CONFLATED.length; i++)
+			if(message.startsWith(CONFLATED[i]))
+				return CONFLATED[i];
+		
+		return null;
+	}
+	
+	/**
+	 * gives the lane a message belongs in
+	 * 
+	 * @param message the message
+	 * @return LANE_DRAWING for drawing data, LANE_CONTROL otherwise
+	 */
+	public static int laneOf(String message)
+	{
+		return message.startsWith(PGServer.HEADER_DRAWING) ? LANE_DRAWING : LANE_CONTROL;
+	}
+	
+	/**
+	 * says whether a drawing message is a Release or Clear marker rather
+	 * than a point
+	 * 
+	 * @param message the drawing message
+	 * @return <b>true</b> for a marker, <b>false</b> for a point
+	 */
+	private static boolean isMarker(String message)
+	{
+		return message.equals(PGServer.HEADER_DRAWING + PGServer.DRAWING_RELEASE)
+				|| message.equals(PGServer.HEADER_DRAWING + PGServer.DRAWING_CLEAR);
+	}
+	
+	/**
+	 * says whether a message makes the client wipe its canvas
+	 * 
+	 * @param message the message
+	 * @return <b>true</b> if queued drawing data is now useless,
+	 * <b>false</b> otherwise
+	 */
+	private static boolean wipesCanvas(String message)
+	{
+		return message.equals(PGServer.HEADER_DRAWING + PGServer.DRAWING_CLEAR)
+				|| message.startsWith(PGServer.HEADER_ROLE)
+				|| message.startsWith(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_ROUND_END)
+				|| message.startsWith(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_GAME_END);
+	}
+}
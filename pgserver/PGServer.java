@@ -6,6 +6,8 @@ import java.net.*;
 //import java.net.ServerSocket;
 import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The PGServer class launches and maintains a server that handles connections
@@ -25,9 +27,14 @@ public class PGServer {
 	public static final String HEADER_GAME_UPDATE = "GAME: ";
 	public static final String HEADER_CLIENT_LIST = "CLIENTS: ";
 	public static final String HEADER_GUESS_LIST = "GUESSES: ";
-	public static final String HEADER_TIMER = "TIMER: ";
+	public static final String HEADER_GUESS_ADDED = "NEW GUESS: ";
+	public static final String HEADER_DEADLINE = "DEADLINE: ";
 	public static final String HEADER_PLAYER = "PLAYER: ";
+	public static final String HEADER_PLAYER_JOINED = "JOINED: ";
+	public static final String HEADER_PLAYER_LEFT = "LEFT: ";
+	public static final String HEADER_PLAYER_TEAM = "TEAM: ";
 	public static final String HEADER_REMOVED = "REMOVED";
+	public static final String HEADER_BUNDLE = "BUNDLE: ";
 	
 	// CONSTANTS - Game Update Messages
 	public static final String UPDATE_START = "Starting";
@@ -48,27 +55,49 @@ public class PGServer {
 	
 	// CONSTANTS - Other messages
 	public static final String MSG_TIMEOUT = "Round ended with a timeout";
+	public static final String MSG_CLOSE_GUESS = " is close!";
 	
 	// CONSTANTS - other
 	private static final int PORT_DEFAULT = 6789;
+	
+	// Log every Nth chat message (0 = never), e.g. -Dpgserver.chatLogEvery=100
+	// (only while the gameplay log is at INFO or more detailed)
+	private static final int CHAT_LOG_EVERY = Integer.getInteger("pgserver.chatLogEvery", 0);
 	private static final String WORDLIST_FILE = "wordlists";
-	private static final String ALL_WORDLIST_NAME = "all";
 	
 	// DATA MEMBERS
 	ArrayList<PGServerThread> clientThreads;
 	ArrayList<String> activeUsernames;
 	ArrayList<String> activeKeys;
 	ArrayList<PGLobby> lobbyList;
-	ArrayList<PGWordList> wordLists;
+	private ConcurrentHashMap<Integer, PGLobby> lobbyIndex; // lobby ID -> lobby
+	private AtomicInteger chatCount;
+	private volatile PGCorpus corpus; // replaced whole when word lists reload
 	private int currentLobbyID;
 	
 	/**
 	 * constructor for PGServer
 	 * 
 	 * @param port port on which to listen for clients
+	 * @param wl word lists to play with
 	 * @throws IOException
 	 */
 	public PGServer(int port, ArrayList<PGWordList> wl) throws IOException
+	{
+		this(port, new PGCorpus(wl), null);
+	}
+	
+	/**
+	 * constructor for PGServer that reloads its word lists whenever the
+	 * given directory changes
+	 * 
+	 * @param port port on which to listen for clients
+	 * @param c corpus of word lists to play with
+	 * @param wordListDirectory directory to watch for word list changes,
+	 * or <b>null</b> to never reload
+	 * @throws IOException
+	 */
+	public PGServer(int port, PGCorpus c, File wordListDirectory) throws IOException
 	{
 		currentLobbyID = 0;
 		boolean active = true;
@@ -77,18 +106,25 @@ public class PGServer {
 		activeUsernames = new ArrayList<String>();
 		activeKeys = new ArrayList<String>();
 		lobbyList = new ArrayList<PGLobby>();
-		wordLists = wl;
+		lobbyIndex = new ConcurrentHashMap<Integer, PGLobby>();
+		chatCount = new AtomicInteger();
+		corpus = c;
+		
+		if(wordListDirectory != null)
+		{
+			PGLog.info(PGLog.SERVER, "Watching " + wordListDirectory + " for word list changes");
+			new PGWordListWatcher(this, wordListDirectory.toPath()).start();
+		}
 		
 		ServerSocket socket = new ServerSocket(port);
 
-		System.out.println("Socket opened on port " + port);
-		System.out.println("Server address: " + InetAddress.getLocalHost());
-		System.out.println();
+		PGLog.info(PGLog.SERVER, "Socket opened on port " + port);
+		PGLog.info(PGLog.SERVER, "Server address: " + InetAddress.getLocalHost());
 		
 		while(active)
 		{
 			PGServerThread thread = new PGServerThread(socket.accept(), this);
-			System.out.println("New client: " + thread.getAddress());
+			PGLog.info(PGLog.NETWORK, "New client: " + thread.getAddress());
 			thread.start();
 			clientThreads.add(thread);
 		}
@@ -109,7 +145,7 @@ public class PGServer {
 			return false;
 		else
 		{
-			System.out.println("Reserving username " + username);
+			PGLog.debug(PGLog.NETWORK, "Reserving username " + username);
 			activeUsernames.add(username);
 			return true;
 		}
@@ -125,12 +161,12 @@ public class PGServer {
 	{
 		if(lobbyList.size() == 0)
 		{
-			PGLobby newLobby = new PGLobby(this, currentLobbyID, false, compileAllWordLists());
-			System.out.println("Creating new lobby with ID " + currentLobbyID);
+			PGLobby newLobby = createLobby(false, null);
+			PGLog.info(PGLog.LOBBY, "Creating new lobby with ID " + currentLobbyID);
 			currentLobbyID++;
 			newLobby.addClient(client);
-			System.out.println("Adding " + client.getAddress() + " to lobby " + newLobby.getLobbyID());
-			lobbyList.add(newLobby);
+			PGLog.info(PGLog.LOBBY, "Adding " + client.getAddress() + " to lobby " + newLobby.getLobbyID());
+			addLobby(newLobby);
 			return newLobby.getLobbyID();
 		}
 		else
@@ -140,27 +176,19 @@ public class PGServer {
 				PGLobby target = lobbyList.get(i);
 				if(target != null && target.hasSlotAvailable() && !target.isPrivate())
 				{
-					target.addClient(client);
-					System.out.println("Adding " + client.getAddress() + " to lobby " + target.getLobbyID());
-					
-					// Update all players' client lists
-					for(int j = 0; j < target.getClientList().size(); j++)
-					{
-						PGServerThread curr = target.getClientList().get(j);
-						if(curr != client)
-							sendLobbyPlayerList(curr);
-					}
+					target.addClient(client); // other players are sent a join update
+					PGLog.info(PGLog.LOBBY, "Adding " + client.getAddress() + " to lobby " + target.getLobbyID());
 					
 					return target.getLobbyID();
 				}
 			}
 			
-			PGLobby newLobby = new PGLobby(this, currentLobbyID, false, compileAllWordLists());
-			System.out.println("Creating new lobby with ID " + currentLobbyID);
+			PGLobby newLobby = createLobby(false, null);
+			PGLog.info(PGLog.LOBBY, "Creating new lobby with ID " + currentLobbyID);
 			currentLobbyID++;
 			newLobby.addClient(client);
-			System.out.println("Adding " + client.getAddress() + " to lobby " + newLobby.getLobbyID());
-			lobbyList.add(newLobby);
+			PGLog.info(PGLog.LOBBY, "Adding " + client.getAddress() + " to lobby " + newLobby.getLobbyID());
+			addLobby(newLobby);
 			return newLobby.getLobbyID();
 		}
 	}
@@ -180,16 +208,8 @@ public class PGServer {
 			PGLobby target = lobbyList.get(i);
 			if(target != null && target.isPrivate() && target.hasSlotAvailable() && target.getKey().equals(key))
 			{
-				target.addClient(client);
-				System.out.println("Adding " + client.getAddress() + "to PRIVATE lobby " + target.getLobbyID());
-				
-				// Update all players' client lists
-				for(int j = 0; j < target.getClientList().size(); j++)
-				{
-					PGServerThread curr = target.getClientList().get(j);
-					if(curr != client)
-						sendLobbyPlayerList(curr);
-				}
+				target.addClient(client); // other players are sent a join update
+				PGLog.info(PGLog.LOBBY, "Adding " + client.getAddress() + " to PRIVATE lobby " + target.getLobbyID());
 				
 				return target.getLobbyID();
 			}
@@ -203,17 +223,21 @@ public class PGServer {
 	 * creates a new private lobby for the specified client
 	 * 
 	 * @param client client creating a private lobby
+	 * @param timer round time limit
+	 * @param score score limit
+	 * @param categories names of the word list categories to play, or
+	 * <b>null</b> for all
 	 * @return the key associated with the private lobby
 	 */
-	public String createPrivateLobby(PGServerThread client, int timer, int score)
+	public String createPrivateLobby(PGServerThread client, int timer, int score, String[] categories)
 	{
-		PGLobby newLobby = new PGLobby(this, currentLobbyID, true, compileAllWordLists());
+		PGLobby newLobby = createLobby(true, categories);
 		newLobby.setScoreLimit(score);
 		newLobby.setTimeLimit(timer);
-		System.out.println("Creating new PRIVATE lobby with ID " + currentLobbyID);
+		PGLog.info(PGLog.LOBBY, "Creating new PRIVATE lobby with ID " + currentLobbyID);
 		currentLobbyID++;
 		newLobby.addClient(client);
-		System.out.println("Adding " + client.getAddress() + "to PRIVATE lobby " + newLobby.getLobbyID());
+		PGLog.info(PGLog.LOBBY, "Adding " + client.getAddress() + " to PRIVATE lobby " + newLobby.getLobbyID());
 		client.setLobby(newLobby.getLobbyID());
 		
 		// Generate key for new lobby
@@ -230,7 +254,7 @@ public class PGServer {
 				}
 		}
 		
-		lobbyList.add(newLobby);
+		addLobby(newLobby);
 		return newLobby.getKey();
 	}
 	
@@ -242,29 +266,52 @@ public class PGServer {
 	 */
 	public void sendChatMessage(String message, PGServerThread client)
 	{
-		int lobbyID = client.getLobby();
-		PGLobby lobby;
+		PGLobby lobby = findLobby(client.getLobby());
+		if(lobby == null)
+			return;
 		
-		for(int i = 0; i < lobbyList.size(); i++)
+		PGFrame frame;
+		try
+		{
+			frame = new PGFrame(HEADER_CHAT + message);
+		}
+		catch(IllegalArgumentException e)
+		{
+			PGLog.warn(PGLog.GAMEPLAY, "Could not send " + message.length() + " character chat message to lobby "
+					+ lobby.getLobbyID(), e);
+			return;
+		}
+		lobby.addChatHistory(frame);
+		int recipients = broadcast(lobby, frame);
+		
+		if((CHAT_LOG_EVERY > 0) && (chatCount.incrementAndGet() % CHAT_LOG_EVERY == 0)
+				&& PGLog.isEnabled(PGLog.GAMEPLAY, PGLog.INFO))
+			PGLog.info(PGLog.GAMEPLAY, "Chat message \"" + message + "\" to lobby " + lobby.getLobbyID()
+					+ " (" + recipients + " recipients, " + chatCount.get() + " chat messages so far)");
+	}
+	
+	/**
+	 * sends one encoded message to everyone in a lobby
+	 * 
+	 * @param lobby the lobby to send to
+	 * @param frame the message
+	 * @return the number of clients sent the message
+	 */
+	private int broadcast(PGLobby lobby, PGFrame frame)
+	{
+		ArrayList<PGServerThread> clientsInLobby = lobby.getClientList();
+		int sent = 0;
+		for(int i = 0; i < clientsInLobby.size(); i++)
 		{
-			lobby = lobbyList.get(i);
-			if(lobby != null && (lobby.getLobbyID() == lobbyID))
+			PGServerThread curr = clientsInLobby.get(i);
+			if(curr != null)
 			{
-				System.out.println("Chat message \"" + message + "\" to lobby " + lobbyID);
-				
-				ArrayList<PGServerThread> clientsInLobby = lobby.getClientList();
-				for(int j = 0; j < clientsInLobby.size(); j++)
-				{
-					PGServerThread curr = clientsInLobby.get(j);
-					if(curr != null)
-					{
-						System.out.println("Sending to " + curr.getAddress());
-						curr.sendMessage(HEADER_CHAT + message);
-					}
-				}
-				break;
+				curr.sendFrame(frame);
+				sent++;
 			}
 		}
+		
+		return sent;
 	}
 	
 	/**
@@ -274,7 +321,7 @@ public class PGServer {
 	 */
 	public static ArrayList<PGWordList> initializeWordLists() throws IOException
 	{
-		System.out.println("Initializing word lists..."); // Debug
+		PGLog.info(PGLog.SERVER, "Initializing word lists...");
 		
 		Scanner wlScan = new Scanner(PGServer.class.getResourceAsStream(WORDLIST_FILE));
 		ArrayList<String> wordListNames = new ArrayList<String>();
@@ -285,7 +332,7 @@ public class PGServer {
 		ArrayList<PGWordList> wordLists = new ArrayList<PGWordList>();
 		for(int i = 0; i < wordListNames.size(); i++)
 		{
-			System.out.println("\tAdding word list: " + wordListNames.get(i)); // Debug
+			PGLog.info(PGLog.SERVER, "Adding word list: " + wordListNames.get(i));
 			
 			Scanner wordScan = new Scanner(PGServer.class.getResourceAsStream(wordListNames.get(i)));
 			ArrayList<String> words = new ArrayList<String>();
@@ -300,6 +347,72 @@ public class PGServer {
 		return wordLists;
 	}
 	
+	/**
+	 * read in word lists from a directory, one list per file named after
+	 * the file (blank lines and empty files are skipped)
+	 * 
+	 * @param directory the directory holding the word list files
+	 * @return all word lists in the directory
+	 */
+	public static ArrayList<PGWordList> initializeWordLists(File directory) throws IOException
+	{
+		PGLog.info(PGLog.SERVER, "Initializing word lists from " + directory + "...");
+		
+		File[] files = directory.listFiles();
+		if(files == null)
+			throw new IOException("Not a readable directory: " + directory);
+		
+		ArrayList<PGWordList> wordLists = new ArrayList<PGWordList>();
+		for(int i = 0; i < files.length; i++)
+		{
+			if(!files[i].isFile() || files[i].isHidden() || files[i].getName().endsWith(PGCorpus.PACKED_EXTENSION))
+				continue;
+			
+			Scanner wordScan = new Scanner(files[i], "UTF-8");
+			ArrayList<String> words = new ArrayList<String>();
+			
+			while(wordScan.hasNextLine())
+			{
+				String word = wordScan.nextLine().trim();
+				if(word.length() > 0)
+					words.add(word);
+			}
+			wordScan.close();
+			
+			if(words.size() > 0)
+			{
+				PGLog.info(PGLog.SERVER, "Adding word list: " + files[i].getName());
+				wordLists.add(new PGWordList(files[i].getName(), words));
+			}
+		}
+		
+		return wordLists;
+	}
+	
+	/**
+	 * gives the word lists currently in play
+	 * 
+	 * @return the current corpus
+	 */
+	public PGCorpus getCorpus()
+	{
+		return corpus;
+	}
+	
+	/**
+	 * swaps in a new set of word lists, keeping the stats of words that
+	 * are still in them; rounds already running keep their word and
+	 * lobbies switch over when their next round starts
+	 * 
+	 * @param c the new corpus
+	 */
+	public void setCorpus(PGCorpus c)
+	{
+		PGLog.info(PGLog.LOBBY, "Swapping in " + c.getCategoryCount() + " reloaded word lists");
+		c.takeStats(corpus);
+		corpus = c;
+	}
+	
 	/**
 	 * removes a client from a lobby
 	 * 
@@ -318,30 +431,36 @@ public class PGServer {
 	 */
 	public PGLobby findLobby(int lobbyID)
 	{
-		for(int i = 0; i < lobbyList.size(); i++)
-			if(lobbyList.get(i).getLobbyID() == lobbyID)
-				return lobbyList.get(i);
-		
-		return null;
+		return lobbyIndex.get(lobbyID);
 	}
 	
 	/**
-	 * creates a word lists with all word lists combined (used for
-	 * public games)
+	 * adds a newly created lobby to the lobby list and index
 	 * 
-	 * @return a word list containing all other word lists
+	 * @param lobby the new lobby
 	 */
-	private PGWordList compileAllWordLists()
+	private void addLobby(PGLobby lobby)
 	{
-		ArrayList<String> allWords = new ArrayList<String>();
-		for(int i = 0; i < wordLists.size(); i++)
-		{
-			ArrayList<String> wordList = wordLists.get(i).getWords();
-			for(int word = 0; word < wordList.size(); word++)
-				allWords.add(wordList.get(word));
-		}
-		
-		return new PGWordList(ALL_WORDLIST_NAME, allWords);
+		lobbyIndex.put(lobby.getLobbyID(), lobby);
+		lobbyList.add(lobby);
+	}
+	
+	/**
+	 * creates a lobby with the current ID playing the given categories
+	 * of the current corpus
+	 * 
+	 * @param isPrivate whether or not the new lobby is private
+	 * @param categories names of the categories to play, or <b>null</b>
+	 * for all
+	 * @return the new lobby
+	 */
+	private PGLobby createLobby(boolean isPrivate, String[] categories)
+	{
+		PGCorpus current = corpus;
+		PGLobby lobby = new PGLobby(this, currentLobbyID, isPrivate, current.compile(categories));
+		lobby.setCorpus(current);
+		lobby.setCategories(categories);
+		return lobby;
 	}
 	
 	/**
@@ -353,15 +472,7 @@ public class PGServer {
 	 */
 	public boolean startLobby(int lobbyID)
 	{
-		PGLobby lobby = null;
-		for(int i = 0; i < lobbyList.size(); i++)
-		{
-			if(lobbyList.get(i).getLobbyID() == lobbyID)
-			{
-				lobby = lobbyList.get(i);
-				break;
-			}
-		}
+		PGLobby lobby = findLobby(lobbyID);
 		if(lobby == null)
 			return false;
 		else if(!lobby.ready())
@@ -370,7 +481,7 @@ public class PGServer {
 			return false;
 		else
 		{
-			System.out.println("Starting lobby " + lobbyID);
+			PGLog.info(PGLog.LOBBY, "Starting lobby " + lobbyID);
 			
 			// Tell clients the game is starting
 			ArrayList<PGServerThread> clientList = lobby.getClientList();
@@ -434,16 +545,43 @@ public class PGServer {
 	 */
 	public void guessReceived(String guess, PGServerThread guesser)
 	{
-		System.out.println("Lobby " + guesser.getLobby() + ": " + guesser.getUsername() + " guessed " + guess);
+		if(PGLog.isEnabled(PGLog.GAMEPLAY, PGLog.DEBUG))
+			PGLog.debug(PGLog.GAMEPLAY, "Lobby " + guesser.getLobby() + ": " + guesser.getUsername() + " guessed " + guess);
 		
 		PGLobby lobby = findLobby(guesser.getLobby());
 		
 		lobby.guessReceived(guess, guesser);
-		
-		// send updated guess list to all players on team
-		for(int i = 0; i < lobby.getClientList().size(); i++)
-			if(lobby.getClientList().get(i).getTeam() == guesser.getTeam())
-				sendGuessList(lobby.getClientList().get(i));
+	}
+	
+	/**
+	 * sends a single new guess to all players on a team, who append it
+	 * to the guess list they already have
+	 * 
+	 * @param lobby the lobby in which the guess was made
+	 * @param team the team whose guess list grew
+	 * @param guess the guess to add
+	 */
+	public void sendGuessAdded(PGLobby lobby, int team, String guess)
+	{
+		String message = HEADER_GUESS_ADDED + guess;
+		ArrayList<PGServerThread> clientList = lobby.getClientList();
+		for(int i = 0; i < clientList.size(); i++)
+		{
+			PGServerThread curr = clientList.get(i);
+			if(curr.getTeam() == team)
+				curr.sendMessage(message);
+		}
+	}
+	
+	/**
+	 * privately tells a guesser their guess was nearly the word
+	 * 
+	 * @param guesser the client who made the guess
+	 * @param guess the guess that was close
+	 */
+	public void sendCloseGuess(PGServerThread guesser, String guess)
+	{
+		guesser.sendMessage(HEADER_CHAT + "\"" + guess + "\"" + MSG_CLOSE_GUESS);
 	}
 	
 	/**
@@ -521,7 +659,7 @@ public class PGServer {
 		
 		// Remove username from database
 		String username = client.getUsername();
-		System.out.println("Relinquishing username " + username);
+		PGLog.debug(PGLog.NETWORK, "Relinquishing username " + username);
 		for(int i = 0; i < activeUsernames.size(); i++)
 			if(activeUsernames.get(i).equals(username))
 			{
@@ -531,86 +669,142 @@ public class PGServer {
 	}
 	
 	/**
-	 * sends the specified client the current list of players on the server
+	 * sends the specified client a full snapshot of the players in their
+	 * lobby (encoded once per change and shared by every recipient);
+	 * afterwards the client is kept up to date by sendPlayerUpdate
 	 * 
 	 * @param client client requesting updated player list
 	 */
 	public void sendLobbyPlayerList(PGServerThread client)
-	{		
-		String playerList = "";
-		ArrayList<PGServerThread> clientList = findLobby(client.getLobby()).getClientList();
-		
-		if(findLobby(client.getLobby()).isPlaying())
+	{
+		client.sendFrame(findLobby(client.getLobby()).getRosterFrame());
+	}
+	
+	/**
+	 * tells the players in a lobby that one player joined
+	 * 
+	 * @param lobby the lobby joined
+	 * @param player the player who joined (who is not sent the update,
+	 * their INFO request gets a full snapshot instead)
+	 */
+	public void playerJoined(PGLobby lobby, PGServerThread player)
+	{
+		sendPlayerUpdate(lobby, HEADER_PLAYER_JOINED + player.getTeam() + " " + player.getUsername(), player);
+	}
+	
+	/**
+	 * tells the players in a lobby that one player left
+	 * 
+	 * @param lobby the lobby left
+	 * @param player the player who left
+	 */
+	public void playerLeft(PGLobby lobby, PGServerThread player)
+	{
+		sendPlayerUpdate(lobby, HEADER_PLAYER_LEFT + player.getUsername(), player);
+	}
+	
+	/**
+	 * tells the players in a lobby that one player changed teams
+	 * 
+	 * @param lobby the player's lobby
+	 * @param player the player whose team changed
+	 */
+	public void playerTeamChanged(PGLobby lobby, PGServerThread player)
+	{
+		sendPlayerUpdate(lobby, HEADER_PLAYER_TEAM + player.getTeam() + " " + player.getUsername(), null);
+	}
+	
+	/**
+	 * sends one player list update to everyone in a lobby
+	 * 
+	 * @param lobby lobby whose players are updated
+	 * @param message the update
+	 * @param skip a client not to send the update to (or <b>null</b>)
+	 */
+	private void sendPlayerUpdate(PGLobby lobby, String message, PGServerThread skip)
+	{
+		ArrayList<PGServerThread> clientList = lobby.getClientList();
+		for(int i = 0; i < clientList.size(); i++)
 		{
-			playerList += "TEAM ONE:\n";
-			
-			for(int i = 0; i < clientList.size(); i++)
-			{
-				PGServerThread curr = clientList.get(i);
-				if(curr.getTeam() == PGLobby.TEAM_1)
-					playerList += " - " + curr.getUsername() + "\n";
-			}
-			
-			playerList += "\nTEAM TWO:\n";
-			for(int i = 0; i < clientList.size(); i++)
-			{
-				PGServerThread curr = clientList.get(i);
-				if(curr.getTeam() == PGLobby.TEAM_2)
-					playerList += " - " + curr.getUsername() + "\n";
-			}
-			
-			playerList += "\nNOT ON TEAM:\n";
-			for(int i = 0; i < clientList.size(); i++)
-			{
-				PGServerThread curr = clientList.get(i);
-				if(curr.getTeam() == PGLobby.TEAM_WAIT)
-					playerList += " - " + curr.getUsername() + "\n";
-			}
+			PGServerThread curr = clientList.get(i);
+			if(curr != skip)
+				curr.sendMessage(message);
 		}
-		else
-			for(int i = 0; i < clientList.size(); i++)
-				playerList += " - " + clientList.get(i).getUsername() + "\n";
-		
-		client.sendMessage(HEADER_CLIENT_LIST + playerList);
 	}
 	
 	/**
-	 * sends a list of the client's team's guesses to a specified
-	 * client
+	 * sends a full snapshot of the client's team's guesses to a specified
+	 * client (only needed on join or resync, new guesses are sent by
+	 * sendGuessAdded)
 	 * 
 	 * @param client to whom the guess list will be sent
 	 */
 	public void sendGuessList(PGServerThread client)
 	{
-		String guessList = "";
+		ArrayList<String> guesses;
 		if(client.getTeam() == PGLobby.TEAM_1)
-		{
-			ArrayList<String> guesses = findLobby(client.getLobby()).getTeam1Guesses();
-			for(int i = 0; i < guesses.size(); i++)
-				guessList += guesses.get(i) + "\n";
-			
-			client.sendMessage(HEADER_GUESS_LIST + guessList);
-		}
+			guesses = findLobby(client.getLobby()).getTeam1Guesses();
 		else if(client.getTeam() == PGLobby.TEAM_2)
-		{
-			ArrayList<String> guesses = findLobby(client.getLobby()).getTeam2Guesses();
-			for(int i = 0; i < guesses.size(); i++)
-				guessList += guesses.get(i) + "\n";
-			
-			client.sendMessage(HEADER_GUESS_LIST + guessList);
-		}
-			
+			guesses = findLobby(client.getLobby()).getTeam2Guesses();
+		else
+			return;
+		
+		StringBuilder guessList = new StringBuilder(HEADER_GUESS_LIST);
+		for(int i = 0; i < guesses.size(); i++)
+			guessList.append(guesses.get(i)).append('\n');
+		
+		client.sendMessage(guessList.toString());
+	}
+	
+	/**
+	 * sends everyone in a lobby the time at which the current round or
+	 * wait time ends
+	 * 
+	 * @param lobby the lobby whose deadline changed
+	 */
+	public void sendDeadline(PGLobby lobby)
+	{
+		String message = deadlineMessage(lobby);
+		ArrayList<PGServerThread> clientList = lobby.getClientList();
+		for(int i = 0; i < clientList.size(); i++)
+			clientList.get(i).sendMessage(message);
 	}
 	
 	/**
-	 * sends the client the current time left in the lobby
+	 * sends the client its lobby's recent chat messages in one batch
 	 * 
-	 * @param client client to send the time to
-	 * @param t current time for the lobby
+	 * @param client client who just joined or reconnected
 	 */
-	public void sendTimerUpdate(PGServerThread client, int t)
+	public void sendChatHistory(PGServerThread client)
 	{
-		client.sendMessage(HEADER_TIMER + t);
+		PGLobby lobby = findLobby(client.getLobby());
+		if(lobby != null)
+			client.sendFrames(lobby.getChatHistory());
+	}
+	
+	/**
+	 * sends the client the time at which its lobby's current round or
+	 * wait time ends
+	 * 
+	 * @param client client to send the deadline to
+	 */
+	public void sendDeadline(PGServerThread client)
+	{
+		PGLobby lobby = findLobby(client.getLobby());
+		if((lobby != null) && lobby.isPlaying())
+			client.sendMessage(deadlineMessage(lobby));
+	}
+	
+	/**
+	 * builds a deadline message: the server's clock then the deadline,
+	 * so clients can correct for their own clock's offset
+	 * 
+	 * @param lobby the lobby whose deadline is sent
+	 * @return the message
+	 */
+	private String deadlineMessage(PGLobby lobby)
+	{
+		return HEADER_DEADLINE + System.currentTimeMillis() + " " + lobby.getDeadline();
 	}
 	
 	/**
@@ -627,24 +821,22 @@ public class PGServer {
 		
 		if(correct)
 		{
+			String score = scoreMessage(lobby);
+			String chat = HEADER_CHAT + guesserName + " correctly guessed " + word;
+			PGFrame guesserFrame = new PGFrame(new String[] {HEADER_GAME_UPDATE + UPDATE_ROUND_END,
+					HEADER_GAME_UPDATE + UPDATE_CORRECT, score, chat});
+			PGFrame othersFrame = new PGFrame(new String[] {HEADER_GAME_UPDATE + UPDATE_ROUND_END, score, chat});
+			
 			for(int i = 0; i < clientList.size(); i++)
 			{
 				PGServerThread curr = clientList.get(i);
-				curr.sendMessage(HEADER_GAME_UPDATE + UPDATE_ROUND_END);
-				if(curr.getUsername().equals(guesserName))
-					curr.sendMessage(HEADER_GAME_UPDATE + UPDATE_CORRECT);
-				curr.sendMessage(HEADER_GAME_UPDATE + UPDATE_SCORE + lobby.getTeam1Score() + " " + lobby.getTeam2Score());
-				curr.sendMessage(HEADER_CHAT + guesserName + " correctly guessed " + word);
+				curr.sendFrame(curr.getUsername().equals(guesserName) ? guesserFrame : othersFrame);
 			}
 		}
 		else // Timeout
 		{
-			for(int i = 0; i < clientList.size(); i++)
-			{
-				PGServerThread curr = clientList.get(i);
-				curr.sendMessage(HEADER_GAME_UPDATE + UPDATE_ROUND_END);
-				curr.sendMessage(HEADER_CHAT + MSG_TIMEOUT);
-			}
+			broadcast(lobby, new PGFrame(new String[] {HEADER_GAME_UPDATE + UPDATE_ROUND_END,
+					HEADER_CHAT + MSG_TIMEOUT}));
 		}
 		
 		lobby.endRound();
@@ -658,14 +850,8 @@ public class PGServer {
 	 */
 	public void drawerDisconnected(PGLobby lobby, int team)
 	{
-		ArrayList<PGServerThread> clientList = lobby.getClientList();
-		for(int i = 0; i < clientList.size(); i++)
-		{
-			PGServerThread curr = clientList.get(i);
-			curr.sendMessage(HEADER_GAME_UPDATE + UPDATE_ROUND_END);
-			curr.sendMessage(HEADER_GAME_UPDATE + UPDATE_SCORE + lobby.getTeam1Score() + " " + lobby.getTeam2Score());
-			curr.sendMessage(HEADER_CHAT + "Team " + team + "'s drawer disconnected, starting new round");
-		}
+		broadcast(lobby, new PGFrame(new String[] {HEADER_GAME_UPDATE + UPDATE_ROUND_END, scoreMessage(lobby),
+				HEADER_CHAT + "Team " + team + "'s drawer disconnected, starting new round"}));
 		
 		lobby.endRound();
 	}
@@ -677,25 +863,33 @@ public class PGServer {
 	 */
 	public void lobbyGameOver(PGLobby lobby, String message)
 	{
-		ArrayList<PGServerThread> clientList = lobby.getClientList();
-		for(int i = 0; i < clientList.size(); i++)
-		{
-			PGServerThread curr = clientList.get(i);
-			curr.sendMessage(HEADER_GAME_UPDATE + UPDATE_GAME_END + message);
-			curr.sendMessage(HEADER_GAME_UPDATE + UPDATE_SCORE + lobby.getTeam1Score() + " " + lobby.getTeam2Score());
-			sendLobbyPlayerList(curr);
-		}
+		broadcast(lobby, new PGFrame(new String[] {HEADER_GAME_UPDATE + UPDATE_GAME_END + message,
+				scoreMessage(lobby), lobby.getRosterFrame().getMessage()}));
+	}
+	
+	/**
+	 * builds a score update for a lobby
+	 * 
+	 * @param lobby the lobby whose score is sent
+	 * @return the message
+	 */
+	private String scoreMessage(PGLobby lobby)
+	{
+		return HEADER_GAME_UPDATE + UPDATE_SCORE + lobby.getTeam1Score() + " " + lobby.getTeam2Score();
 	}
 	
 	/**
 	 * main - starts a PGServer
 	 * 
-	 * @param args does nothing
+	 * @param args port number, optionally followed by a word list
+	 * directory to load from and watch for changes or a packed word list
+	 * file (see PGCorpus) to memory-map
 	 */
 	public static void main(String[] args)
 	{   
 		int portNumber = 0;
-		if(args.length == 1)
+		File wordListSource = null;
+		if(args.length == 1 || args.length == 2)
 		{ 	try
 			{
 				portNumber = Integer.parseInt(args[0]);
@@ -706,15 +900,23 @@ public class PGServer {
 				System.out.println("MUST BE A NUMBER");
 				System.exit(1);
 			}
+			
+			if(args.length == 2)
+				wordListSource = new File(args[1]);
 		}
 		else
 		{
-		   System.out.println("USAGE: PGServer [PORT NUMBER]");
+		   System.out.println("USAGE: PGServer [PORT NUMBER] [WORD LIST DIRECTORY OR PACKED FILE (optional)]");
 		   System.exit(1);
 		}
 		try
 		{   
-		   new PGServer(portNumber, initializeWordLists());
+		   if(wordListSource == null)
+			   new PGServer(portNumber, initializeWordLists());
+		   else if(wordListSource.isDirectory())
+			   new PGServer(portNumber, new PGCorpus(initializeWordLists(wordListSource)), wordListSource);
+		   else
+			   new PGServer(portNumber, PGCorpus.load(wordListSource), null);
 		}
 	       catch(BindException e0)
 		{
@@ -3,7 +3,6 @@ package pgserver;
 import java.awt.Color;
 import java.io.BufferedInputStream;
 import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.Socket;
@@ -28,17 +27,25 @@ public class PGServerThread extends Thread {
 	public static final String MESSAGE_USERNAME_SUCCESS = "USERNAME CLAIMED SUCCESSFULLY";
 	public static final String MESSAGE_USERNAME_FAILURE = "USERNAME NOT CLAIMED";
 	public static final String MESSAGE_CREATE_PRIVATE = "CREATE PRIVATE";
+	public static final String MESSAGE_LIST_CATEGORIES = "CATEGORIES";
+	public static final String MESSAGE_CATEGORY_LIST = "CATEGORIES: ";
+	public static final String CATEGORY_SEPARATOR = ",";
 	public static final String MESSAGE_JOIN_PUBLIC = "PUBLIC";
 	public static final String MESSAGE_JOIN_PRIVATE = "PRIVATE ";
 	public static final String MESSAGE_JOIN_SUCCESS = "LOBBY JOINED SUCCESSFULLY";
 	public static final String MESSAGE_JOIN_FAILURE = "LOBBY JOIN FAILED";
 	public static final String MESSAGE_LEAVE_LOBBY = "LEAVE LOBBY";
 	
+	// CONSTANTS - Limits (in characters, so every message stays well under writeUTF's 65535 bytes)
+	public static final int MAX_USERNAME_LENGTH = 64;
+	public static final int MAX_CHAT_LENGTH = 1000; // longer chat messages are cut off
+	public static final int MAX_GUESS_LENGTH = 100; // longer guesses are ignored
+	
 	// DATA MEMBERS
 	private Socket socket = null;
 	private PGServer parent;
 	private DataInputStream input;
-	private DataOutputStream output;
+	private PGOutbox outbox;
 	private int currentState;
 	private String username;
 	private int lobbyID;
@@ -70,7 +77,8 @@ public class PGServerThread extends Thread {
 		try
 		{
 			input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
-			output = new DataOutputStream(socket.getOutputStream());
+			outbox = new PGOutbox(socket.getOutputStream(), getAddress().toString());
+			outbox.start();
 			
 			while(active)
 			{
@@ -78,17 +86,15 @@ public class PGServerThread extends Thread {
 				
 				if(currentState == STATE_USERNAME) // try setting username
 				{
-					if(parent.addUsername(message))
+					if((message.length() <= MAX_USERNAME_LENGTH) && parent.addUsername(message))
 					{
-						output.writeUTF(MESSAGE_USERNAME_SUCCESS);
-						output.flush();
+						sendMessage(MESSAGE_USERNAME_SUCCESS);
 						currentState = STATE_LOBBY_SELECTION;
 						username = message;
 					}
 					else
 					{
-						output.writeUTF(MESSAGE_USERNAME_FAILURE);
-						output.flush();
+						sendMessage(MESSAGE_USERNAME_FAILURE);
 					}
 				}
 				else if(currentState == STATE_LOBBY_SELECTION)
@@ -96,8 +102,7 @@ public class PGServerThread extends Thread {
 					if(message.equals(MESSAGE_JOIN_PUBLIC))
 					{
 						lobbyID = parent.addToPublicLobby(this);
-						output.writeUTF(MESSAGE_JOIN_SUCCESS);
-						output.flush();
+						sendMessage(MESSAGE_JOIN_SUCCESS);
 						currentState = STATE_IN_LOBBY;
 						parent.startLobby(lobbyID);
 					}
@@ -108,15 +113,30 @@ public class PGServerThread extends Thread {
 						Scanner optionScan = new Scanner(options);
 						int timer = optionScan.nextInt();
 						int score = optionScan.nextInt();
+						String[] categories = null; // all categories unless some are listed
+						if(optionScan.hasNextLine())
+						{
+							String categoryList = optionScan.nextLine().trim();
+							if(categoryList.length() > 0)
+								categories = categoryList.split(CATEGORY_SEPARATOR);
+						}
 						optionScan.close();
 						
-						parent.createPrivateLobby(this, timer, score);
-						output.writeUTF(MESSAGE_JOIN_SUCCESS);
-						output.flush();
+						parent.createPrivateLobby(this, timer, score, categories);
+						sendMessage(MESSAGE_JOIN_SUCCESS);
 						currentState = STATE_IN_LOBBY;
 						
 						sendMessage(PGServer.HEADER_CHAT + "Key: " + parent.findLobby(lobbyID).getKey());
 					}
+					else if(message.equals(MESSAGE_LIST_CATEGORIES))
+					{
+						String[] names = parent.getCorpus().getCategoryNames();
+						String categoryList = "";
+						for(int i = 0; i < names.length; i++)
+							categoryList += (i == 0 ? "" : CATEGORY_SEPARATOR) + names[i];
+						
+						sendMessage(MESSAGE_CATEGORY_LIST + categoryList);
+					}
 					else if(message.startsWith(MESSAGE_JOIN_PRIVATE))
 					{
 						try
@@ -128,8 +148,7 @@ public class PGServerThread extends Thread {
 							else
 							{
 								lobbyID = result;
-								output.writeUTF(MESSAGE_JOIN_SUCCESS);
-								output.flush();
+								sendMessage(MESSAGE_JOIN_SUCCESS);
 								currentState = STATE_IN_LOBBY;
 								parent.startLobby(lobbyID);
 							}
@@ -144,7 +163,7 @@ public class PGServerThread extends Thread {
 				{
 					if(message.equals(MESSAGE_LEAVE_LOBBY))
 					{
-						System.out.println("Removing " + username + " from lobby");
+						PGLog.info(PGLog.LOBBY, "Removing " + username + " from lobby");
 						parent.removeFromLobby(this, lobbyID);
 						sendMessage(PGServer.HEADER_REMOVED);
 						currentState = STATE_LOBBY_SELECTION;
@@ -152,6 +171,8 @@ public class PGServerThread extends Thread {
 					else if(message.startsWith(GameplayWindowEngine.HEADER_CHAT))
 					{
 						String chatMessage = message.substring(GameplayWindowEngine.HEADER_CHAT.length()); // Remove header
+						if(chatMessage.length() > MAX_CHAT_LENGTH)
+							chatMessage = chatMessage.substring(0, MAX_CHAT_LENGTH);
 						parent.sendChatMessage(username + ": " + chatMessage, this);
 					}
 					else if(message.startsWith(GameplayWindowEngine.HEADER_DRAWING))
@@ -187,7 +208,10 @@ public class PGServerThread extends Thread {
 						if(!drawing)
 						{
 							String guess = message.substring(GameplayWindowEngine.HEADER_GUESS.length());
-							parent.guessReceived(guess, this);
+							if(guess.length() <= MAX_GUESS_LENGTH)
+								parent.guessReceived(guess, this);
+							else
+								PGLog.warn(PGLog.GAMEPLAY, "Ignoring " + guess.length() + " character guess from " + username);
 						}
 					}
 					else if(message.startsWith(GameplayWindowEngine.HEADER_INFO))
@@ -195,6 +219,15 @@ public class PGServerThread extends Thread {
 						// Update player list
 						parent.sendLobbyPlayerList(this);
 						
+						// Resync guess list
+						parent.sendGuessList(this);
+						
+						// Catch up on chat
+						parent.sendChatHistory(this);
+						
+						// Resync countdown
+						parent.sendDeadline(this);
+						
 						// Check to see if lobby can start
 						parent.startLobby(lobbyID);
 						
@@ -203,17 +236,36 @@ public class PGServerThread extends Thread {
 					}
 					else
 					{
-						System.err.println("ERROR: Could not parse message - " + message);
+						PGLog.warn(PGLog.NETWORK, "Could not parse message - " + message);
 					}
 				}
 			}
 		}
 		catch(IOException e)
 		{
-			System.err.println("ERROR: Lost connection to " + getAddress());
+			PGLog.info(PGLog.NETWORK, "Lost connection to " + getAddress());
+			if(outbox != null)
+				outbox.close();
 			parent.removeUser(this);
 			active = false;
 		}
+		catch(RuntimeException e)
+		{
+			// Still drop the client, or it stays in its lobby with its username claimed
+			PGLog.warn(PGLog.NETWORK, "Dropping " + getAddress() + " after an unexpected error", e);
+			if(outbox != null)
+				outbox.close();
+			parent.removeUser(this);
+			
+			try
+			{
+				socket.close();
+			}
+			catch(IOException e2)
+			{
+				// Closing anyway
+			}
+		}
 	}
 	
 	/**
@@ -269,22 +321,47 @@ public class PGServerThread extends Thread {
 	}
 	
 	/**
-	 * sends a message out to the connected client
+	 * sends a message out to the connected client (a message too long to
+	 * encode is logged and not sent)
 	 * 
 	 * @param message a String message to send
 	 */
 	public void sendMessage(String message)
 	{
+		PGFrame frame;
 		try
 		{
-			output.writeUTF(message);
-			output.flush();
+			frame = new PGFrame(message);
 		}
-		catch(IOException e)
+		catch(IllegalArgumentException e)
 		{
-			System.err.println("ERROR: Could not send message");
-			e.printStackTrace();
+			PGLog.warn(PGLog.NETWORK, "Could not send " + message.length() + " character message to " + username, e);
+			return;
 		}
+		
+		sendFrame(frame);
+	}
+	
+	/**
+	 * queues an already encoded message for the client (drawing data
+	 * waits behind everything else, see PGOutbox)
+	 * 
+	 * @param frame the message to send
+	 */
+	public void sendFrame(PGFrame frame)
+	{
+		outbox.send(frame);
+	}
+	
+	/**
+	 * queues several already encoded messages for the client together,
+	 * so nothing else is queued between them
+	 * 
+	 * @param frames the messages to send, in order
+	 */
+	public void sendFrames(PGFrame[] frames)
+	{
+		outbox.send(frames);
 	}
 	
 	/**
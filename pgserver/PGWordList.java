@@ -1,22 +1,41 @@
 package pgserver;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Random;
 
 /**
  * The PGWordList class maintains a list of words and keeps
- * track of what words have already been played.
+ * track of what words have already been played.  The words either
+ * come from a plain list or are a selection of word IDs in a shared
+ * PGCorpus (a contiguous range, or a shared BitSet for several
+ * categories), in which case no per-word Strings are kept and words
+ * are picked using the corpus's PGWordStats so words near the target
+ * difficulty come up more often.
  * 
  * @author Billy Robbins
- * @version 1.0
+ * @version 1.1
  * @since 11/20/2015
  */
 public class PGWordList {
 	
+	// CONSTANTS
+	private static final int RANDOM_PROBES = 8; // random picks to try before scanning for an unused word
+	
 	// DATA MEMBERS
 	private String name;
-	private ArrayList<String> words;
-	private boolean[] used;
+	private ArrayList<String> words; // null when backed by a corpus
+	private PGCorpus corpus;
+	private BitSet selection; // selected word IDs, null when every ID in the span is selected
+	private int firstID;
+	private int endID;
+	private int size;
+	private int[] categories; // non-empty corpus categories in this list
+	private PGWordStats stats; // null for plain lists, which pick uniformly
+	private int lastID;
+	private BitSet used; // indexed by word ID - firstID
+	private int usedCount;
+	private Random rand;
 	
 	/**
 	 * constructor for the PGWordList class
@@ -28,11 +47,84 @@ public class PGWordList {
 	{
 		name = n;
 		words = w;
+		firstID = 0;
+		endID = words.size();
+		size = words.size();
+		
+		used = new BitSet(size);
+		rand = new Random();
+		reset();
+	}
+	
+	/**
+	 * constructor for a word list backed by a range of word IDs in a
+	 * corpus
+	 * 
+	 * @param n the name of the word list (a descriptor)
+	 * @param c the corpus holding the words
+	 * @param start first word ID in the list
+	 * @param end one past the last word ID in the list
+	 */
+	public PGWordList(String n, PGCorpus c, int start, int end)
+	{
+		name = n;
+		corpus = c;
+		firstID = start;
+		endID = end;
+		size = end - start;
+		findCategories();
+		
+		used = new BitSet(size);
+		rand = new Random();
+		reset();
+	}
+	
+	/**
+	 * constructor for a word list backed by an arbitrary selection of
+	 * word IDs in a corpus (the selection is shared, not copied, and must
+	 * not be changed afterwards)
+	 * 
+	 * @param n the name of the word list (a descriptor)
+	 * @param c the corpus holding the words
+	 * @param s the selected word IDs
+	 */
+	public PGWordList(String n, PGCorpus c, BitSet s)
+	{
+		name = n;
+		corpus = c;
+		selection = s;
+		firstID = Math.max(s.nextSetBit(0), 0);
+		endID = Math.max(s.length(), firstID);
+		size = s.cardinality();
+		findCategories();
 		
-		used = new boolean[words.size()];
+		used = new BitSet(endID - firstID);
+		rand = new Random();
 		reset();
 	}
 	
+	/**
+	 * lists the corpus categories this list covers (categories are
+	 * either wholly in or wholly out of a list)
+	 */
+	private void findCategories()
+	{
+		stats = corpus.getStats();
+		
+		int count = 0;
+		int[] found = new int[corpus.getCategoryCount()];
+		for(int c = 0; c < found.length; c++)
+		{
+			int start = corpus.getCategoryStart(c);
+			if((start < corpus.getCategoryEnd(c)) && (start >= firstID) && (start < endID)
+					&& ((selection == null) || selection.get(start)))
+				found[count++] = c;
+		}
+		
+		categories = new int[count];
+		System.arraycopy(found, 0, categories, 0, count);
+	}
+	
 	/**
 	 * returns the name (descriptor) of this word list
 	 * 
@@ -44,13 +136,102 @@ public class PGWordList {
 	}
 	
 	/**
-	 * returns the list of words belonging to this word list
+	 * returns the list of words belonging to this word list (for a
+	 * corpus-backed list this is a new copy, prefer size and getWord)
 	 * 
 	 * @return ArrayList with all words in this word list
 	 */
 	public ArrayList<String> getWords()
 	{
-		return words;
+		if(words != null)
+			return words;
+		
+		ArrayList<String> copy = new ArrayList<String>(size);
+		for(int id = nextID(firstID); id != -1; id = nextID(id + 1))
+			copy.add(corpus.getWord(id));
+		
+		return copy;
+	}
+	
+	/**
+	 * gives the number of words in this list
+	 * 
+	 * @return number of words
+	 */
+	public int size()
+	{
+		return size;
+	}
+	
+	/**
+	 * gives the word at a position in this list (walks the selection
+	 * for lists made of several categories)
+	 * 
+	 * @param i position of the word
+	 * @return the word
+	 */
+	public String getWord(int i)
+	{
+		if(selection == null)
+			return wordFor(firstID + i);
+		
+		int id = nextID(firstID);
+		for(int skip = i; skip > 0; skip--)
+			id = nextID(id + 1);
+		
+		return wordFor(id);
+	}
+	
+	/**
+	 * gives the word with a given ID
+	 * 
+	 * @param id the word's ID
+	 * @return the word
+	 */
+	private String wordFor(int id)
+	{
+		if(words != null)
+			return words.get(id);
+		
+		return corpus.getWord(id);
+	}
+	
+	/**
+	 * finds the next word ID in this list
+	 * 
+	 * @param id ID to start looking from
+	 * @return the first ID at or after id in this list, or -1 if there
+	 * isn't one
+	 */
+	private int nextID(int id)
+	{
+		if(selection != null)
+		{
+			int next = selection.nextSetBit(id);
+			return (next >= endID) ? -1 : next;
+		}
+		
+		return (id < endID) ? id : -1;
+	}
+	
+	/**
+	 * says whether a word appears in this list, ignoring case (through the
+	 * corpus's shared word index, or by scanning a plain list)
+	 * 
+	 * @param word the word to look up
+	 * @return <b>true</b> if the word is in this list, <b>false</b>
+	 * otherwise
+	 */
+	public boolean contains(String word)
+	{
+		if(corpus != null)
+			return corpus.contains(word, firstID, endID, selection);
+		
+		for(int i = 0; i < words.size(); i++)
+			if(words.get(i).equalsIgnoreCase(word))
+				return true;
+		
+		return false;
 	}
 	
 	/**
@@ -64,23 +245,86 @@ public class PGWordList {
 		if(allUsed())
 			reset();
 		
-		ArrayList<String> unusedWords = new ArrayList<String>();
-		for(int i = 0; i < words.size(); i++)
-			if(!used[i])
-				unusedWords.add(words.get(i));
+		// Random picks land on an unused word almost every time unless
+		// the list is nearly used up
+		int pick = -1;
+		for(int probe = 0; (probe < RANDOM_PROBES) && (pick == -1); probe++)
+		{
+			int candidate;
+			if(stats != null)
+				candidate = stats.sample(rand, categories);
+			else
+				candidate = firstID + rand.nextInt(endID - firstID);
+			
+			if(isUnused(candidate))
+				pick = candidate;
+		}
 		
-		Random rand = new Random();
-		String word = unusedWords.get(rand.nextInt(unusedWords.size()));
+		// Otherwise choose uniformly among the unused words
+		if(pick == -1)
+		{
+			pick = nextUnusedID(firstID);
+			for(int skip = rand.nextInt(size - usedCount); skip > 0; skip--)
+				pick = nextUnusedID(pick + 1);
+		}
 		
 		// Set this word to used
-		for(int i = 0; i < words.size(); i++)
-			if(words.get(i).equals(word))
-			{
-				used[i] = true;
-				break;
-			}
+		used.set(pick - firstID);
+		usedCount++;
+		lastID = pick;
 		
-		return word;
+		return wordFor(pick);
+	}
+	
+	/**
+	 * gives the ID of the word getRandomWord last returned
+	 * 
+	 * @return the last word's ID
+	 */
+	public int getLastWordID()
+	{
+		return lastID;
+	}
+	
+	/**
+	 * records how a round with a word from this list went, so later
+	 * picks can favor words of the right difficulty
+	 * 
+	 * @param id the word's ID (from getLastWordID)
+	 * @param solved whether the word was guessed
+	 * @param seconds seconds from round start to the correct guess
+	 * @param timeLimit the round's time limit in seconds
+	 */
+	public void recordResult(int id, boolean solved, int seconds, int timeLimit)
+	{
+		if(stats != null)
+			stats.record(id, solved, seconds, timeLimit);
+	}
+	
+	/**
+	 * says whether a word ID is in this list and hasn't been used
+	 * 
+	 * @param id the word ID
+	 * @return <b>true</b> if the word can be picked, <b>false</b> otherwise
+	 */
+	private boolean isUnused(int id)
+	{
+		return ((selection == null) || selection.get(id)) && !used.get(id - firstID);
+	}
+	
+	/**
+	 * finds the next unused word ID in this list
+	 * 
+	 * @param id ID to start looking from
+	 * @return the first unused ID at or after id, or -1 if there isn't one
+	 */
+	private int nextUnusedID(int id)
+	{
+		for(id = nextID(id); id != -1; id = nextID(id + 1))
+			if(!used.get(id - firstID))
+				return id;
+		
+		return -1;
 	}
 	
 	/**
@@ -91,11 +335,7 @@ public class PGWordList {
 	 */
 	public boolean allUsed()
 	{
-		for(int i = 0; i < used.length; i++)
-			if(!used[i])
-				return false;
-		
-		return true;
+		return usedCount == size;
 	}
 	
 	/**
@@ -103,7 +343,7 @@ public class PGWordList {
 	 */
 	public void reset()
 	{
-		for(int i = 0; i < used.length; i++)
-			used[i] = false;
+		used.clear();
+		usedCount = 0;
 	}
 }
@@ -0,0 +1,118 @@
+package pgserver;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PGWordListWatcher class watches an external word list directory and
+ * rebuilds the server's corpus in the background whenever a file in it
+ * changes.  The new corpus is swapped in all at once; lobbies pick it up
+ * when their next round starts.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGWordListWatcher extends Thread {
+	
+	// CONSTANTS
+	private static final String THREAD_NAME = "PGWordListWatcher";
+	private static final int SETTLE_MILLISECONDS = 500; // wait for a burst of writes to finish
+	
+	// DATA MEMBERS
+	private PGServer parent;
+	private Path directory;
+	private boolean active;
+	
+	/**
+	 * constructor for PGWordListWatcher
+	 * 
+	 * @param p the server whose corpus is reloaded
+	 * @param dir the directory holding the word list files
+	 */
+	public PGWordListWatcher(PGServer p, Path dir)
+	{
+		super(THREAD_NAME);
+		setDaemon(true);
+		parent = p;
+		directory = dir;
+		active = false;
+	}
+	
+	@Override
+	/**
+	 * watches the directory until deactivated
+	 */
+	public void run()
+	{
+		active = true;
+		
+		try
+		{
+			WatchService watcher = FileSystems.getDefault().newWatchService();
+			directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+			
+			while(active)
+			{
+				WatchKey key = watcher.take();
+				key.pollEvents();
+				key.reset();
+				
+				// Editors and copies often write a file several times, so
+				// wait until the directory is quiet before reloading
+				while((key = watcher.poll(SETTLE_MILLISECONDS, TimeUnit.MILLISECONDS)) != null)
+				{
+					key.pollEvents();
+					key.reset();
+				}
+				
+				reload();
+			}
+			
+			watcher.close();
+		}
+		catch(IOException e)
+		{
+			PGLog.error(PGLog.LOBBY, "Could not watch word list directory " + directory);
+		}
+		catch(InterruptedException e)
+		{
+			PGLog.error(PGLog.LOBBY, "Interrupt called on word list watcher (this shouldn't happen)");
+		}
+	}
+	
+	/**
+	 * rebuilds the corpus from the directory and swaps it into the server,
+	 * keeping the current corpus if the directory can't be read
+	 */
+	private void reload()
+	{
+		try
+		{
+			ArrayList<PGWordList> wordLists = PGServer.initializeWordLists(directory.toFile());
+			if(wordLists.size() == 0)
+				PGLog.warn(PGLog.LOBBY, "No word lists in " + directory + ", keeping current lists");
+			else
+				parent.setCorpus(new PGCorpus(wordLists));
+		}
+		catch(IOException e)
+		{
+			PGLog.warn(PGLog.LOBBY, "Could not reload word lists, keeping current lists", e);
+		}
+	}
+	
+	/**
+	 * stops watching after the next change
+	 */
+	public void deactivate()
+	{
+		active = false;
+	}
+}
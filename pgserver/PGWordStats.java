@@ -0,0 +1,427 @@
+package pgserver;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The PGWordStats class records how every word in a corpus has played
+ * (rounds, solves, seconds to solve) and uses it to favor words whose
+ * difficulty is close to a target when picking the next word.
+ * 
+ * Stats live in int arrays indexed by word ID.  Each category is split
+ * into blocks of BLOCK_SIZE words, each with an alias table over its
+ * words' weights, plus an alias table over the blocks' total weights,
+ * so sampling is O(1).  Blocks whose stats changed are rebuilt in the
+ * background a few seconds after the change, along with their
+ * category's small table of block weights, and the category's tables
+ * are swapped in together, so lobbies never wait for a rebuild and a
+ * rebuild costs the size of the blocks that changed rather than of the
+ * whole category.  A block with no table yet is sampled uniformly (every
+ * unplayed word weighs 1).
+ * 
+ * When the word lists are reloaded, the new corpus's stats take over the
+ * old ones word by word (see carryOver), so what has been learned
+ * survives edits to the lists.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PGWordStats {
+	
+	// CONSTANTS
+	public static final double TARGET_DIFFICULTY = 0.5; // 0 = solved instantly, 1 = never solved
+	private static final double DIFFICULTY_WIDTH = 0.25; // how quickly weight falls off away from the target
+	private static final double MIN_WEIGHT = 0.05; // keeps every word in rotation
+	private static final int PRIOR_ROUNDS = 2; // pretend rounds at the target difficulty for unplayed words
+	private static final int REBUILD_DELAY_SECONDS = 5;
+	private static final int BLOCK_SIZE = 4096; // words per alias table
+	private static final int MILLIS = 1000;
+	
+	// Shared by every corpus so old corpora don't leave threads behind
+	private static final ScheduledExecutorService REBUILDER = Executors.newSingleThreadScheduledExecutor(
+			new ThreadFactory() {
+				public Thread newThread(Runnable r)
+				{
+					Thread thread = new Thread(r, "PGWordStats");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+	
+	// DATA MEMBERS
+	private PGCorpus corpus;
+	private int[] rounds;
+	private int[] solves;
+	private int[] solveSeconds;
+	private int[] difficultyMillis; // per round: 1000 for a timeout, else share of the time limit used
+	private int[] blockStarts; // index of each category's first block (blocks are numbered across categories)
+	private BitSet dirty; // blocks whose stats changed since their last rebuild
+	private boolean rebuildScheduled;
+	private AtomicReferenceArray<CategoryTable> tables; // per category, null until first rebuild
+	private volatile long rebuiltWords; // words weighed by rebuilds so far (only written by the rebuilder)
+	
+	/**
+	 * constructor for PGWordStats
+	 * 
+	 * @param c the corpus whose words are tracked
+	 */
+	public PGWordStats(PGCorpus c)
+	{
+		corpus = c;
+		rounds = new int[c.size()];
+		solves = new int[c.size()];
+		solveSeconds = new int[c.size()];
+		difficultyMillis = new int[c.size()];
+		
+		blockStarts = new int[c.getCategoryCount() + 1];
+		for(int i = 0; i < c.getCategoryCount(); i++)
+		{
+			int words = c.getCategoryEnd(i) - c.getCategoryStart(i);
+			blockStarts[i + 1] = blockStarts[i] + (words + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		}
+		
+		dirty = new BitSet(blockStarts[c.getCategoryCount()]);
+		rebuildScheduled = false;
+		tables = new AtomicReferenceArray<CategoryTable>(c.getCategoryCount());
+		rebuiltWords = 0;
+	}
+	
+	/**
+	 * records how a round with a word went
+	 * 
+	 * @param id the word's ID
+	 * @param solved whether the word was guessed
+	 * @param seconds seconds from round start to the correct guess
+	 * @param timeLimit the round's time limit in seconds
+	 */
+	public synchronized void record(int id, boolean solved, int seconds, int timeLimit)
+	{
+		rounds[id]++;
+		if(solved)
+		{
+			solves[id]++;
+			solveSeconds[id] += seconds;
+			difficultyMillis[id] += Math.min(MILLIS, MILLIS * seconds / Math.max(timeLimit, 1));
+		}
+		else
+			difficultyMillis[id] += MILLIS;
+		
+		markDirty(id);
+	}
+	
+	/**
+	 * takes over the stats of every word that is also in a category of the
+	 * same name in the old corpus, then rebuilds the tables (words that
+	 * are gone, or moved to another category, start over)
+	 * 
+	 * @param old the stats of the corpus this one replaces
+	 */
+	public void carryOver(PGWordStats old)
+	{
+		PGCorpus oldCorpus = old.corpus;
+		HashMap<String, Integer> oldCategories = new HashMap<String, Integer>();
+		for(int c = 0; c < oldCorpus.getCategoryCount(); c++)
+			oldCategories.put(oldCorpus.getCategoryName(c), c);
+		
+		synchronized(old)
+		{
+			synchronized(this)
+			{
+				for(int c = 0; c < corpus.getCategoryCount(); c++)
+				{
+					Integer oldCategory = oldCategories.get(corpus.getCategoryName(c));
+					if(oldCategory == null)
+						continue;
+					
+					int start = corpus.getCategoryStart(c);
+					int end = corpus.getCategoryEnd(c);
+					int oldEnd = oldCorpus.getCategoryEnd(oldCategory);
+					for(int id = oldCorpus.getCategoryStart(oldCategory); id < oldEnd; id++)
+					{
+						if(old.rounds[id] == 0)
+							continue;
+						
+						int newId = corpus.indexOf(oldCorpus.getWord(id), start, end);
+						if(newId == -1)
+							continue;
+						
+						rounds[newId] += old.rounds[id];
+						solves[newId] += old.solves[id];
+						solveSeconds[newId] += old.solveSeconds[id];
+						difficultyMillis[newId] += old.difficultyMillis[id];
+						markDirty(newId);
+					}
+				}
+			}
+		}
+		
+		rebuild();
+	}
+	
+	/**
+	 * marks a word's block for rebuilding, scheduling a rebuild if there
+	 * isn't one already (call while holding the lock)
+	 * 
+	 * @param id the word's ID
+	 */
+	private void markDirty(int id)
+	{
+		int category = corpus.getCategoryOf(id);
+		dirty.set(blockStarts[category] + (id - corpus.getCategoryStart(category)) / BLOCK_SIZE);
+		if(!rebuildScheduled)
+		{
+			rebuildScheduled = true;
+			REBUILDER.schedule(new Runnable() {
+				public void run()
+				{
+					rebuildDirtyTables();
+				}
+			}, REBUILD_DELAY_SECONDS, TimeUnit.SECONDS);
+		}
+	}
+	
+	/**
+	 * picks a word ID from a set of categories, favoring words near the
+	 * target difficulty
+	 * 
+	 * @param rand source of randomness
+	 * @param categories indices of the categories to pick from
+	 * @return the chosen word ID
+	 */
+	public int sample(Random rand, int[] categories)
+	{
+		// Pick a category in proportion to its total weight
+		int category = categories[0];
+		if(categories.length > 1)
+		{
+			double total = 0;
+			for(int i = 0; i < categories.length; i++)
+				total += categoryWeight(categories[i]);
+			
+			double target = rand.nextDouble() * total;
+			for(int i = 0; i < categories.length; i++)
+			{
+				category = categories[i];
+				target -= categoryWeight(category);
+				if(target < 0)
+					break;
+			}
+		}
+		
+		// Then a block within it, and a word within that
+		int start = corpus.getCategoryStart(category);
+		int end = corpus.getCategoryEnd(category);
+		CategoryTable table = tables.get(category);
+		if(table == null)
+			return start + rand.nextInt(end - start);
+		
+		int block = table.blocks.sample(rand);
+		int blockStart = start + block * BLOCK_SIZE;
+		PGAliasTable words = table.words[block];
+		if(words == null)
+			return blockStart + rand.nextInt(Math.min(BLOCK_SIZE, end - blockStart));
+		
+		return blockStart + words.sample(rand);
+	}
+	
+	/**
+	 * gives the number of rounds played with a word
+	 * 
+	 * @param id the word's ID
+	 * @return rounds played
+	 */
+	public synchronized int getRounds(int id)
+	{
+		return rounds[id];
+	}
+	
+	/**
+	 * gives the number of rounds in which a word was guessed
+	 * 
+	 * @param id the word's ID
+	 * @return rounds solved
+	 */
+	public synchronized int getSolves(int id)
+	{
+		return solves[id];
+	}
+	
+	/**
+	 * gives the average time taken to guess a word
+	 * 
+	 * @param id the word's ID
+	 * @return average seconds to solve, or 0 if never solved
+	 */
+	public synchronized double getAverageSolveSeconds(int id)
+	{
+		return (solves[id] == 0) ? 0 : (double) solveSeconds[id] / solves[id];
+	}
+	
+	/**
+	 * rebuilds the tables of every block whose stats changed now, instead
+	 * of waiting for the scheduled rebuild, and waits for it to finish
+	 */
+	public void rebuild()
+	{
+		try
+		{
+			REBUILDER.submit(new Runnable() {
+				public void run()
+				{
+					rebuildDirtyTables();
+				}
+			}).get();
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch(ExecutionException e)
+		{
+			throw new IllegalStateException("Word stats rebuild failed", e.getCause());
+		}
+	}
+	
+	/**
+	 * gives the number of words weighed by rebuilds so far (a rebuild only
+	 * weighs the blocks that changed)
+	 * 
+	 * @return words weighed
+	 */
+	public long getRebuiltWords()
+	{
+		return rebuiltWords;
+	}
+	
+	/**
+	 * rebuilds the tables of every category with blocks whose stats
+	 * changed (rebuilder thread only)
+	 */
+	private void rebuildDirtyTables()
+	{
+		BitSet changed;
+		synchronized(this)
+		{
+			changed = dirty;
+			dirty = new BitSet(changed.size());
+			rebuildScheduled = false;
+		}
+		
+		for(int c = 0; c < tables.length(); c++)
+		{
+			int next = changed.nextSetBit(blockStarts[c]);
+			if((next != -1) && (next < blockStarts[c + 1]))
+				tables.set(c, rebuildCategory(c, changed));
+		}
+	}
+	
+	/**
+	 * rebuilds a category's changed blocks, reusing the tables of the
+	 * others, and its table of block weights
+	 * 
+	 * @param category the category's index
+	 * @param changed the blocks to rebuild
+	 * @return the category's new tables
+	 */
+	private CategoryTable rebuildCategory(int category, BitSet changed)
+	{
+		int start = corpus.getCategoryStart(category);
+		int end = corpus.getCategoryEnd(category);
+		int blockCount = blockStarts[category + 1] - blockStarts[category];
+		
+		CategoryTable old = tables.get(category);
+		PGAliasTable[] words = (old == null) ? new PGAliasTable[blockCount] : old.words.clone();
+		double[] blockWeights = new double[blockCount];
+		for(int b = 0; b < blockCount; b++)
+		{
+			int blockStart = start + b * BLOCK_SIZE;
+			int blockEnd = Math.min(blockStart + BLOCK_SIZE, end);
+			if(changed.get(blockStarts[category] + b))
+				words[b] = buildTable(blockStart, blockEnd);
+			
+			blockWeights[b] = (words[b] == null) ? blockEnd - blockStart : words[b].getTotalWeight();
+		}
+		
+		return new CategoryTable(new PGAliasTable(blockWeights), words);
+	}
+	
+	/**
+	 * builds the alias table for one block from the current stats
+	 * 
+	 * @param start first word ID in the block
+	 * @param end one past the last word ID in the block
+	 * @return the new table
+	 */
+	private PGAliasTable buildTable(int start, int end)
+	{
+		double[] weights = new double[end - start];
+		
+		// Read without the lock so rebuilding never holds up record();
+		// counts that change mid-read mark the block dirty again anyway
+		for(int i = 0; i < weights.length; i++)
+			weights[i] = weight(start + i);
+		rebuiltWords += weights.length;
+		
+		return new PGAliasTable(weights);
+	}
+	
+	/**
+	 * gives the total weight of a category's words
+	 * 
+	 * @param category the category's index
+	 * @return total weight (unplayed words weigh 1)
+	 */
+	private double categoryWeight(int category)
+	{
+		CategoryTable table = tables.get(category);
+		if(table != null)
+			return table.blocks.getTotalWeight();
+		
+		return corpus.getCategoryEnd(category) - corpus.getCategoryStart(category);
+	}
+	
+	/**
+	 * weighs a word by how close its estimated difficulty is to the target
+	 * 
+	 * @param id the word's ID
+	 * @return the word's weight, between MIN_WEIGHT and 1
+	 */
+	private double weight(int id)
+	{
+		double difficulty = (difficultyMillis[id] / (double) MILLIS + PRIOR_ROUNDS * TARGET_DIFFICULTY)
+				/ (rounds[id] + PRIOR_ROUNDS);
+		double distance = (difficulty - TARGET_DIFFICULTY) / DIFFICULTY_WIDTH;
+		
+		return Math.max(MIN_WEIGHT, Math.exp(-distance * distance));
+	}
+	
+	/**
+	 * one category's alias tables, replaced as a whole when rebuilt
+	 */
+	private static class CategoryTable {
+		
+		// DATA MEMBERS
+		private final PGAliasTable blocks; // over each block's total weight
+		private final PGAliasTable[] words; // per block, null while it has never changed
+		
+		/**
+		 * constructor for CategoryTable
+		 * 
+		 * @param b table over the blocks' weights
+		 * @param w each block's table (null to sample it uniformly)
+		 */
+		private CategoryTable(PGAliasTable b, PGAliasTable[] w)
+		{
+			blocks = b;
+			words = w;
+		}
+	}
+}
@@ -1,8 +1,10 @@
 package pgserver;
 
 /**
- * The Timer class runs for a PGLobby and constantly ticks down, alerting
- * the lobby at each tick of the current time.
+ * The Timer class runs for a PGLobby and counts down to a deadline,
+ * alerting the lobby when the deadline passes.  It sleeps until the
+ * deadline instead of waking every second; while expired and not reset
+ * it keeps alerting the lobby once per tick as before.
  * 
  * @author Billy Robbins
  * @version 1.0
@@ -15,8 +17,9 @@ public class Timer extends Thread {
 	
 	// DATA MEMBERS
 	private PGLobby parent;
-	private int currentTime;
+	private long deadline; // System.currentTimeMillis() at which time runs out
 	private boolean active;
+	private final Object lock; // guards deadline and wakes the timer when it moves
 	
 	/**
 	 * constructor
@@ -26,8 +29,9 @@ public class Timer extends Thread {
 	public Timer(PGLobby p)
 	{
 		parent = p;
-		currentTime = 0;
+		deadline = System.currentTimeMillis();
 		active = false;
+		lock = new Object();
 	}
 	
 	@Override
@@ -42,18 +46,30 @@ public class Timer extends Thread {
 		{
 			try
 			{
-				sleep(TICK_MILLISECONDS);
-				
-				if(currentTime > 0)
-					currentTime -= TICK_MILLISECONDS / 1000;
-				if(currentTime < 0)
-					currentTime = 0;
+				long expired;
+				synchronized(lock)
+				{
+					long wait = deadline - System.currentTimeMillis();
+					if(wait > 0)
+					{
+						lock.wait(wait);
+						continue; // the deadline may have moved
+					}
+					expired = deadline;
+				}
 				
 				tick();
+				
+				// Nobody reset the timer, so wait a tick before alerting again
+				synchronized(lock)
+				{
+					if(active && (deadline == expired))
+						lock.wait(TICK_MILLISECONDS);
+				}
 			}
 			catch(InterruptedException e)
 			{
-				System.err.println("Interrupt called on timer (this shouldn't happen)");
+				PGLog.error(PGLog.LOBBY, "Interrupt called on timer (this shouldn't happen)");
 			}
 		}
 	}
@@ -61,19 +77,36 @@ public class Timer extends Thread {
 	/**
 	 * sets the timer to the given time
 	 * 
-	 * @param t time from which to count down
+	 * @param t time in seconds from which to count down
 	 */
 	public void setCurrentTime(int t)
 	{
-		currentTime = t;
+		synchronized(lock)
+		{
+			deadline = System.currentTimeMillis() + t * 1000L;
+			lock.notify();
+		}
 	}
 	
 	/**
-	 * tells the lobby that the timer has ticked and the current time
+	 * gives the time at which the timer runs out
+	 * 
+	 * @return the deadline in milliseconds since the epoch (server clock)
+	 */
+	public long getDeadline()
+	{
+		synchronized(lock)
+		{
+			return deadline;
+		}
+	}
+	
+	/**
+	 * tells the lobby that time has run out
 	 */
 	private void tick()
 	{
-		parent.timerTick(currentTime);
+		parent.timerTick(0);
 	}
 	
 	/**
@@ -81,7 +114,11 @@ public class Timer extends Thread {
 	 */
 	public void deactivate()
 	{
-		active = false;
+		synchronized(lock)
+		{
+			active = false;
+			lock.notify();
+		}
 	}
 	
 	/**
@@ -0,0 +1,267 @@
+package picturegame;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+
+/**
+ * The ClientOutbox class queues messages for the server and writes them
+ * from its own thread, so a stalled connection never freezes the window
+ * sending them.
+ * 
+ * Drawing points are the only messages sent faster than a person types,
+ * so they are the only ones limited.  Once COALESCE_AT messages are
+ * waiting, a new point replaces a point at the back of the queue instead
+ * of joining it (the stroke skips ahead, but still ends where the mouse
+ * was released), and no more than MAX_POINTS points are ever queued.
+ * 
+ * The queue as a whole is bounded too.  Past MAX_QUEUED messages the
+ * server has stopped reading, so the connection is closed and the
+ * failure is reported as if a write had failed.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class ClientOutbox extends Thread {
+	
+	// CONSTANTS
+	public static final int MAX_QUEUED = 1024; // messages waiting before the connection is closed
+	private static final int COALESCE_AT = 8; // messages waiting before points are coalesced
+	private static final int MAX_POINTS = 256;
+	private static final int BUFFER_SIZE = 8192;
+	private static final long STACK_SIZE = 256 * 1024; // small, so bots can run thousands of clients
+	
+	// DATA MEMBERS
+	private OutputStream connection; // the socket's stream, closed to give up on the server
+	private DataOutputStream output;
+	private ArrayDeque<String> queue;
+	private int points; // drawing points in queue
+	private int coalesced; // points replaced by newer ones
+	private int dropped; // points thrown away because MAX_POINTS were queued
+	private boolean open;
+	private boolean failed; // whether a write failed
+	private Runnable onFailure;
+	
+	/**
+	 * constructor for ClientOutbox
+	 * 
+	 * @param out the socket's output stream
+	 * @param failure run (on the writer thread) if a write fails, or on
+	 * the sending thread if the queue overflows, or <b>null</b>
+	 */
+	public ClientOutbox(OutputStream out, Runnable failure)
+	{
+		super(null, null, "ClientOutbox", STACK_SIZE);
+		setDaemon(true);
+		connection = out;
+		output = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+		queue = new ArrayDeque<String>();
+		points = 0;
+		coalesced = 0;
+		dropped = 0;
+		open = true;
+		failed = false;
+		onFailure = failure;
+	}
+	
+	/**
+	 * queues a message for the server without waiting for it to be sent,
+	 * closing the connection if MAX_QUEUED messages are already waiting
+	 * 
+	 * @param message the message
+	 */
+	public void send(String message)
+	{
+		if(!enqueue(message))
+			disconnect();
+	}
+	
+	/**
+	 * adds a message to the queue
+	 * 
+	 * @param message the message
+	 * @return <b>false</b> if the queue overflowed (and was closed),
+	 * <b>true</b> otherwise
+	 */
+	private synchronized boolean enqueue(String message)
+	{
+		if(!open)
+			return true;
+		
+		if(queue.size() >= MAX_QUEUED)
+		{
+			open = false;
+			failed = true;
+			queue.clear();
+			points = 0;
+			notify();
+			return false;
+		}
+		
+		if(isPoint(message))
+		{
+			if((queue.size() >= COALESCE_AT) && isPoint(queue.peekLast()))
+			{
+				queue.pollLast();
+				points--;
+				coalesced++;
+			}
+			else if(points >= MAX_POINTS)
+			{
+				dropped++;
+				return true;
+			}
+			
+			points++;
+		}
+		
+		queue.add(message);
+		notify();
+		return true;
+	}
+	
+	/**
+	 * closes the connection because the server has stopped reading
+	 */
+	private void disconnect()
+	{
+		System.err.println("ERROR: Over " + MAX_QUEUED + " messages waiting for the server, disconnecting");
+		try
+		{
+			connection.close(); // not output, whose close would flush to the stalled server
+		}
+		catch(IOException e)
+		{
+			// Closing anyway
+		}
+		
+		if(onFailure != null)
+			onFailure.run();
+	}
+	
+	/**
+	 * stops taking messages and waits for the ones queued to be sent
+	 * 
+	 * @param millis longest to wait, in milliseconds
+	 * @return <b>true</b> if everything queued was sent, <b>false</b>
+	 * if time ran out or a write failed
+	 */
+	public boolean finish(long millis)
+	{
+		synchronized(this)
+		{
+			open = false;
+			notify();
+		}
+		
+		try
+		{
+			join(millis);
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		
+		synchronized(this)
+		{
+			return !isAlive() && queue.isEmpty() && !failed;
+		}
+	}
+	
+	/**
+	 * gives the number of messages waiting to be sent
+	 * 
+	 * @return messages queued
+	 */
+	public synchronized int getQueued()
+	{
+		return queue.size();
+	}
+	
+	/**
+	 * gives the number of drawing points replaced by newer ones
+	 * 
+	 * @return points coalesced
+	 */
+	public synchronized int getCoalesced()
+	{
+		return coalesced;
+	}
+	
+	/**
+	 * gives the number of drawing points thrown away because too many were
+	 * waiting
+	 * 
+	 * @return points dropped
+	 */
+	public synchronized int getDropped()
+	{
+		return dropped;
+	}
+	
+	@Override
+	/**
+	 * writes queued messages in order, flushing whenever the queue empties,
+	 * until finished and empty
+	 */
+	public void run()
+	{
+		try
+		{
+			while(true)
+			{
+				String next;
+				boolean last;
+				synchronized(this)
+				{
+					while(open && queue.isEmpty())
+						wait();
+					if(queue.isEmpty())
+						break;
+					
+					next = queue.poll();
+					if(isPoint(next))
+						points--;
+					last = queue.isEmpty();
+				}
+				
+				output.writeUTF(next);
+				if(last)
+					output.flush();
+			}
+		}
+		catch(IOException e)
+		{
+			synchronized(this)
+			{
+				open = false;
+				failed = true;
+				queue.clear();
+				points = 0;
+			}
+			
+			if(onFailure != null)
+				onFailure.run();
+		}
+		catch(InterruptedException e)
+		{
+			System.err.println("Interrupt called on client outbox (this shouldn't happen)");
+		}
+	}
+	
+	/**
+	 * says whether a message is a drawing point (which can be coalesced)
+	 * 
+	 * @param message the message, or <b>null</b>
+	 * @return <b>true</b> if a point, <b>false</b> otherwise
+	 */
+	private static boolean isPoint(String message)
+	{
+		return (message != null) && message.startsWith(GameplayWindowEngine.HEADER_DRAWING)
+				&& !message.equals(GameplayWindowEngine.HEADER_DRAWING + GameplayWindowEngine.DRAWING_RELEASE);
+	}
+}
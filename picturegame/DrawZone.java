@@ -2,13 +2,52 @@ package picturegame;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
 /**
  * The DrawZone class provides a panel the user can draw in and
  * the client's listened can update when another user is drawing.
  * 
+ * One Graphics2D is kept for the canvas image until the next reset, and
+ * its color is only changed when a stroke's color differs, so drawing a
+ * point doesn't allocate.
+ * 
+ * Only the area around new line segments is repainted.  Segments drawn
+ * before the next paint are merged into one dirty rectangle, and paint
+ * copies just the clipped part of the image, so painting costs follow the
+ * size of the stroke rather than the size of the canvas.
+ * 
+ * Drawing from the network arrives on the listener thread, which only
+ * queues it (see StrokeQueue).  A timer on the event dispatch thread
+ * draws everything queued at most FRAMES_PER_SECOND times a second, so
+ * the canvas is only touched from one thread and a burst of points is
+ * drawn and painted as one frame.  The timer stops at the first frame
+ * with nothing to draw and starts again when something is queued, so an
+ * idle window doesn't wake up.
+ * 
+ * Everything drawn is also kept as strokes in a StrokeModel; the image
+ * is only a cache of the model at the current size, rebuilt from it
+ * whenever the panel's size changes.  The model draws strokes as smooth
+ * curves, so each piece appears once the point after it arrives.
+ * Points from the network are in StrokeModel.UNITS of the drawer's
+ * canvas, so a drawing lines up whatever size either window is.
+ * 
+ * The image is made compatible with the screen (so painting it is a
+ * straight copy) and kept across resets while the size is unchanged; a
+ * reset just fills its pixel array with the background color, so round
+ * changes don't allocate a canvas-sized image each time.
+ * 
  * @author Billy Robbins
  * @version 1.0
  * @since 11/21/2015
@@ -17,14 +56,22 @@ public class DrawZone extends JPanel {
 
 	// CONSTANTS
 	private static final Color COLOR_BACKGROUND = Color.WHITE;
+	private static final int STROKE_WIDTH = 1; // pixels, grows the dirty area around a segment
+	private static final int FRAMES_PER_SECOND = 60;
 	
 	// DATA MEMBERS
 	private Color currentColor;
 	private BufferedImage image;
+	private Graphics2D canvas; // draws on image, disposed when image is replaced
+	private int[] pixels; // image's pixels if stored as ints, otherwise null
+	private StrokeModel model; // what has been drawn, independent of size
 	private boolean enabled;
 	private GameplayWindowEngine gameplayEngine;
-	private int lastX;
-	private int lastY;
+	private Rectangle dirty; // area drawn since the last paint, empty if none
+	private Rectangle drawn; // area of the latest piece of stroke drawn
+	private StrokeQueue received; // network drawing waiting for the next frame
+	private Timer renderer;
+	private boolean rendering; // whether renderer is meant to run, guarded by received
 	
 	// Constructor
 	public DrawZone(GameplayWindowEngine e)
@@ -35,6 +82,28 @@ public class DrawZone extends JPanel {
 		this.setBackground(COLOR_BACKGROUND);
 		gameplayEngine = e;
 		enabled = false;
+		dirty = new Rectangle();
+		drawn = new Rectangle();
+		model = new StrokeModel();
+		received = new StrokeQueue();
+		renderer = new Timer(1000 / FRAMES_PER_SECOND, new ActionListener() {
+			public void actionPerformed(ActionEvent e)
+			{
+				if(received.drainTo(DrawZone.this) > 0)
+					return;
+				
+				synchronized(received)
+				{
+					// Checked under the lock queue() starts the timer with, so nothing is stranded
+					if(received.isEmpty())
+					{
+						rendering = false;
+						renderer.stop();
+					}
+				}
+			}
+		});
+		rendering = false;
 	}
 	
 	/**
@@ -42,20 +111,64 @@ public class DrawZone extends JPanel {
 	 */
 	public void reset()
 	{
-		image = new BufferedImage(this.getWidth(), this.getHeight(), BufferedImage.TYPE_INT_RGB);
+		model.clear();
 		currentColor = Color.BLACK;
-		lastX = -1;
-		lastY = -1;
-		
+		rebuildImage();
+	}
+	
+	/**
+	 * redraws the image from the stroke model at the panel's current size
+	 * (or drops it while the panel has no size yet)
+	 */
+	private void rebuildImage()
+	{
+		if((image == null) || (image.getWidth() != getWidth()) || (image.getHeight() != getHeight()))
+			createImage();
+		if(image == null)
+			return;
 		
 		// Set background to default color
-		Graphics g = image.createGraphics();
-		g.setColor(COLOR_BACKGROUND);
-		g.fillRect(0, 0, image.getWidth(), image.getHeight());
+		if(pixels != null)
+			Arrays.fill(pixels, COLOR_BACKGROUND.getRGB());
+		else
+		{
+			canvas.setColor(COLOR_BACKGROUND);
+			canvas.fillRect(0, 0, image.getWidth(), image.getHeight());
+		}
 		
+		model.render(canvas, image.getWidth(), image.getHeight());
 		repaint();
 	}
 	
+	/**
+	 * replaces the image with one the panel's size, in the screen's format
+	 * if the panel is on a screen (or drops it while the panel has no size)
+	 */
+	private void createImage()
+	{
+		if(canvas != null)
+			canvas.dispose();
+		
+		image = null;
+		canvas = null;
+		pixels = null;
+		if((getWidth() <= 0) || (getHeight() <= 0))
+			return;
+		
+		GraphicsConfiguration screen = getGraphicsConfiguration();
+		if(screen != null)
+			image = screen.createCompatibleImage(getWidth(), getHeight(), Transparency.OPAQUE);
+		else
+			image = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_RGB);
+		canvas = image.createGraphics();
+		
+		// Pixels can only be filled directly if stored one int per pixel as RGB
+		DataBuffer buffer = image.getRaster().getDataBuffer();
+		if(((image.getType() == BufferedImage.TYPE_INT_RGB) || (image.getType() == BufferedImage.TYPE_INT_ARGB))
+				&& (buffer instanceof DataBufferInt) && (buffer.getNumBanks() == 1))
+			pixels = ((DataBufferInt) buffer).getData();
+	}
+	
 	/**
 	 * Sets the color drawing will be from now on
 	 * 
@@ -76,17 +189,7 @@ public class DrawZone extends JPanel {
 	{
 		if(enabled)
 		{
-			if(lastX == -1)
-				lastX = x;
-			if(lastY == -1)
-				lastY = y;
-			
-			Graphics g = image.createGraphics();
-			g.setColor(currentColor);
-			g.drawLine(lastX, lastY, x, y);
-			lastX = x;
-			lastY = y;
-			repaint();
+			stroke(StrokeModel.toFraction(x, getWidth()), StrokeModel.toFraction(y, getHeight()), currentColor.getRGB());
 			
 			// Send to other users via gameplay engine
 			gameplayEngine.drawingAt(x, y, currentColor);
@@ -96,23 +199,177 @@ public class DrawZone extends JPanel {
 	/**
 	 * draws pixels received from the network
 	 * 
-	 * @param x x coordinate
-	 * @param y y coordinate
+	 * @param x x coordinate in StrokeModel.UNITS of the canvas width
+	 * @param y y coordinate in StrokeModel.UNITS of the canvas height
 	 * @param c color
 	 */
 	public void drawReceivedAt(int x, int y, Color c)
 	{
-		if(lastX == -1)
-			lastX = x;
-		if(lastY == -1)
-			lastY = y;
+		drawReceivedAt(x, y, c.getRGB());
+	}
+	
+	/**
+	 * draws pixels received from the network
+	 * 
+	 * @param x x coordinate in StrokeModel.UNITS of the canvas width
+	 * @param y y coordinate in StrokeModel.UNITS of the canvas height
+	 * @param rgb color
+	 */
+	private void drawReceivedAt(int x, int y, int rgb)
+	{
+		stroke(StrokeModel.unitsToFraction(x), StrokeModel.unitsToFraction(y), rgb);
+	}
+	
+	/**
+	 * queues a point received from the network for the next frame (call
+	 * from the network listener thread only)
+	 * 
+	 * @param x x coordinate in StrokeModel.UNITS of the canvas width
+	 * @param y y coordinate in StrokeModel.UNITS of the canvas height
+	 * @param rgb color
+	 */
+	public void queueReceivedAt(int x, int y, int rgb)
+	{
+		queue(StrokeQueue.POINT, x, y, rgb);
+	}
+	
+	/**
+	 * queues the network drawer releasing the mouse for the next frame
+	 * (call from the network listener thread only)
+	 */
+	public void queueRelease()
+	{
+		queue(StrokeQueue.RELEASE, 0, 0, 0);
+	}
+	
+	/**
+	 * queues a reset for the next frame, after any drawing already queued
+	 * (call from the network listener thread only)
+	 */
+	public void queueReset()
+	{
+		queue(StrokeQueue.RESET, 0, 0, 0);
+	}
+	
+	/**
+	 * stops drawing queued network events (when the window closes)
+	 */
+	public void stopRendering()
+	{
+		received.close();
+		synchronized(received)
+		{
+			rendering = false;
+			renderer.stop();
+		}
+	}
+	
+	/**
+	 * adds an event to the queue and makes sure frames are being drawn
+	 * (unless rendering has stopped)
+	 * 
+	 * @param kind the kind of event (see StrokeQueue)
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param rgb color
+	 */
+	private void queue(int kind, int x, int y, int rgb)
+	{
+		if(!received.add(kind, x, y, rgb))
+			return; // rendering stopped
 		
-		Graphics g = image.createGraphics();
-		g.setColor(c);
-		g.drawLine(lastX, lastY, x, y);
-		lastX = x;
-		lastY = y;
-		repaint();
+		synchronized(received)
+		{
+			if(!rendering)
+			{
+				rendering = true;
+				renderer.start();
+			}
+		}
+	}
+	
+	/**
+	 * applies one queued network event (called by StrokeQueue on the event
+	 * dispatch thread)
+	 * 
+	 * @param kind the kind of event (see StrokeQueue)
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param rgb color
+	 */
+	void apply(int kind, int x, int y, int rgb)
+	{
+		if(kind == StrokeQueue.POINT)
+			drawReceivedAt(x, y, rgb);
+		else if(kind == StrokeQueue.RELEASE)
+			networkMouseRelease();
+		else if(kind == StrokeQueue.RESET)
+			reset();
+	}
+	
+	/**
+	 * adds a point to the current stroke
+	 * 
+	 * @param x x coordinate as a fraction of the canvas width
+	 * @param y y coordinate as a fraction of the canvas height
+	 * @param rgb color
+	 */
+	private void stroke(float x, float y, int rgb)
+	{
+		model.addPoint(x, y, rgb);
+		drawLatest();
+	}
+	
+	/**
+	 * ends the current stroke, drawing its last piece
+	 */
+	private void endStroke()
+	{
+		model.endStroke();
+		drawLatest();
+	}
+	
+	/**
+	 * draws whatever the model has just finished (see
+	 * StrokeModel.renderLatest)
+	 */
+	private void drawLatest()
+	{
+		// Without a canvas it is drawn when the panel gets a size
+		if((canvas != null) && model.renderLatest(canvas, image.getWidth(), image.getHeight(), drawn))
+			markDirty(drawn);
+	}
+	
+	/**
+	 * adds an area (padded by the stroke width) to the dirty area and asks
+	 * for that area to be repainted
+	 * 
+	 * @param area area drawn on
+	 */
+	private void markDirty(Rectangle area)
+	{
+		int left = area.x - STROKE_WIDTH;
+		int top = area.y - STROKE_WIDTH;
+		int width = area.width + 2 * STROKE_WIDTH + 1;
+		int height = area.height + 2 * STROKE_WIDTH + 1;
+		
+		synchronized(dirty)
+		{
+			if(dirty.isEmpty())
+				dirty.setBounds(left, top, width, height);
+			else
+			{
+				// Union without allocating a Rectangle per point
+				int right = Math.max(dirty.x + dirty.width, left + width);
+				int bottom = Math.max(dirty.y + dirty.height, top + height);
+				dirty.x = Math.min(dirty.x, left);
+				dirty.y = Math.min(dirty.y, top);
+				dirty.width = right - dirty.x;
+				dirty.height = bottom - dirty.y;
+			}
+			
+			repaint(dirty.x, dirty.y, dirty.width, dirty.height);
+		}
 	}
 	
 	/**
@@ -121,8 +378,26 @@ public class DrawZone extends JPanel {
 	@Override
 	protected void paintComponent(Graphics g)
 	{
+		synchronized(dirty)
+		{
+			dirty.setBounds(0, 0, 0, 0);
+		}
+		
+		// Resized (or sized for the first time) since the image was drawn
+		if((image == null) || (image.getWidth() != getWidth()) || (image.getHeight() != getHeight()))
+			rebuildImage();
+		
 		super.paintComponent(g);
-		g.drawImage(image, 0, 0, null);
+		if(image == null)
+			return;
+		
+		// Copy only the part of the image being repainted
+		Rectangle clip = g.getClipBounds();
+		if(clip == null)
+			g.drawImage(image, 0, 0, null);
+		else
+			g.drawImage(image, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+					clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, null);
 	}
 	
 	/**
@@ -142,25 +417,23 @@ public class DrawZone extends JPanel {
 	}
 	
 	/**
-	 * Removes the last x/y coordinates
+	 * Ends the user's stroke
 	 */
 	public void mouseRelease()
 	{
 		if(enabled)
 		{
-			lastX = -1;
-			lastY = -1;
+			endStroke();
 			gameplayEngine.mouseRelease();
 		}
 	}
 	
 	/**
-	 * Removes the last x/y coordinates if someone else is drawing
+	 * Ends the stroke of someone else drawing
 	 */
 	public void networkMouseRelease()
 	{
-		lastX = -1;
-		lastY = -1;
+		endStroke();
 	}
 	
 }
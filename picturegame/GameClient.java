@@ -0,0 +1,244 @@
+package picturegame;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+import pgserver.PGServerThread;
+
+/**
+ * The GameClient class is one connection to a Picture Game server, with
+ * no user interface.  It speaks the whole client side of the protocol:
+ * the blocking handshake used while choosing a username and a lobby, the
+ * messages sent while playing (which go through a ClientOutbox, so they
+ * never block), and reading the server's messages for a
+ * ServerMessageDecoder.  The Swing client and bot players both use it.
+ * 
+ * The handshake methods read the server's reply themselves, so they must
+ * not be called while another thread is reading messages (i.e. only
+ * before joining a lobby or after being removed from one).
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class GameClient {
+	
+	// DATA MEMBERS
+	private Socket socket;
+	private DataInputStream input;
+	private ClientOutbox outbox;
+	private volatile Runnable onSendFailure;
+	
+	/**
+	 * constructor for GameClient, connecting to a server
+	 * 
+	 * @param hostname the server's host
+	 * @param port the server's port
+	 * @throws IOException if the server can't be reached
+	 */
+	public GameClient(String hostname, int port) throws IOException
+	{
+		socket = new Socket(hostname, port);
+		input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		outbox = new ClientOutbox(socket.getOutputStream(), new Runnable() {
+			public void run()
+			{
+				Runnable failure = onSendFailure;
+				if(failure != null)
+					failure.run();
+			}
+		});
+		outbox.start();
+	}
+	
+	/**
+	 * sets what to do if a message can't be sent
+	 * 
+	 * @param failure run on the sending thread when a write fails, or
+	 * <b>null</b> to do nothing
+	 */
+	public void setOnSendFailure(Runnable failure)
+	{
+		onSendFailure = failure;
+	}
+	
+	/**
+	 * tries to claim a username
+	 * 
+	 * @param username the desired username
+	 * @return <b>true</b> if the username is now this client's,
+	 * <b>false</b> if it is taken
+	 * @throws IOException if the connection fails
+	 */
+	public boolean claimUsername(String username) throws IOException
+	{
+		return request(username).equals(PGServerThread.MESSAGE_USERNAME_SUCCESS);
+	}
+	
+	/**
+	 * joins a public lobby
+	 * 
+	 * @return <b>true</b> if joined, <b>false</b> otherwise
+	 * @throws IOException if the connection fails
+	 */
+	public boolean joinPublicLobby() throws IOException
+	{
+		return request(PGServerThread.MESSAGE_JOIN_PUBLIC).equals(PGServerThread.MESSAGE_JOIN_SUCCESS);
+	}
+	
+	/**
+	 * joins a private lobby
+	 * 
+	 * @param key the lobby's key
+	 * @return <b>true</b> if joined, <b>false</b> otherwise
+	 * @throws IOException if the connection fails
+	 */
+	public boolean joinPrivateLobby(String key) throws IOException
+	{
+		return request(PGServerThread.MESSAGE_JOIN_PRIVATE + key).equals(PGServerThread.MESSAGE_JOIN_SUCCESS);
+	}
+	
+	/**
+	 * creates a private lobby and joins it (its key arrives as a chat
+	 * message once playing)
+	 * 
+	 * @param timeLimit round time limit in seconds
+	 * @param scoreLimit score limit
+	 * @param categories categories to play joined by
+	 * PGServerThread.CATEGORY_SEPARATOR, or an empty string for all
+	 * @return <b>true</b> if created and joined, <b>false</b> otherwise
+	 * @throws IOException if the connection fails
+	 */
+	public boolean createPrivateLobby(int timeLimit, int scoreLimit, String categories) throws IOException
+	{
+		return request(PGServerThread.MESSAGE_CREATE_PRIVATE + " " + timeLimit + " " + scoreLimit + " " + categories)
+				.equals(PGServerThread.MESSAGE_JOIN_SUCCESS);
+	}
+	
+	/**
+	 * asks the server for its word list categories
+	 * 
+	 * @return the category names, or an empty array if the server didn't
+	 * list any
+	 * @throws IOException if the connection fails
+	 */
+	public String[] listCategories() throws IOException
+	{
+		String result = request(PGServerThread.MESSAGE_LIST_CATEGORIES);
+		if(!result.startsWith(PGServerThread.MESSAGE_CATEGORY_LIST)
+				|| (result.length() == PGServerThread.MESSAGE_CATEGORY_LIST.length()))
+			return new String[0];
+		
+		return result.substring(PGServerThread.MESSAGE_CATEGORY_LIST.length()).split(PGServerThread.CATEGORY_SEPARATOR);
+	}
+	
+	/**
+	 * asks for the lobby's state (players, guesses, chat, deadline and
+	 * role), as when a window opens
+	 */
+	public void requestInfo()
+	{
+		outbox.send(GameplayWindowEngine.HEADER_INFO);
+	}
+	
+	/**
+	 * sends a chat message
+	 * 
+	 * @param message the message
+	 */
+	public void sendChat(String message)
+	{
+		outbox.send(GameplayWindowEngine.HEADER_CHAT + message);
+	}
+	
+	/**
+	 * sends a guess
+	 * 
+	 * @param guess the guessed word/phrase
+	 */
+	public void sendGuess(String guess)
+	{
+		outbox.send(GameplayWindowEngine.HEADER_GUESS + guess);
+	}
+	
+	/**
+	 * sends a point of the current stroke
+	 * 
+	 * @param x x coordinate in StrokeModel.UNITS of the canvas width
+	 * @param y y coordinate in StrokeModel.UNITS of the canvas height
+	 * @param rgb color
+	 */
+	public void sendPoint(int x, int y, int rgb)
+	{
+		outbox.send(GameplayWindowEngine.HEADER_DRAWING + x + " " + y + " " + rgb);
+	}
+	
+	/**
+	 * ends the current stroke
+	 */
+	public void sendRelease()
+	{
+		outbox.send(GameplayWindowEngine.HEADER_DRAWING + GameplayWindowEngine.DRAWING_RELEASE);
+	}
+	
+	/**
+	 * clears the drawing
+	 */
+	public void sendClear()
+	{
+		outbox.send(GameplayWindowEngine.HEADER_CLEAR);
+	}
+	
+	/**
+	 * leaves the lobby (the server answers with HEADER_REMOVED)
+	 */
+	public void leaveLobby()
+	{
+		outbox.send(PGServerThread.MESSAGE_LEAVE_LOBBY);
+	}
+	
+	/**
+	 * waits for the server's next message
+	 * 
+	 * @return the message
+	 * @throws IOException if the connection fails or is closed
+	 */
+	public String readMessage() throws IOException
+	{
+		return input.readUTF();
+	}
+	
+	/**
+	 * sends anything still queued and disconnects
+	 * 
+	 * @param millis longest to wait for queued messages, in milliseconds
+	 */
+	public void close(long millis)
+	{
+		outbox.finish(millis);
+		
+		try
+		{
+			socket.close();
+		}
+		catch(IOException e)
+		{
+			// Closing anyway
+		}
+	}
+	
+	/**
+	 * sends a handshake message and waits for the reply
+	 * 
+	 * @param message the message
+	 * @return the server's reply
+	 * @throws IOException if the connection fails
+	 */
+	private String request(String message) throws IOException
+	{
+		outbox.send(message);
+		return input.readUTF();
+	}
+}
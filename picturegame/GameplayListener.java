@@ -1,25 +1,30 @@
 package picturegame;
 
-import java.awt.Color;
-import java.io.BufferedInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
-import java.net.Socket;
-import java.util.Scanner;
+import java.util.ArrayList;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
+import pgserver.PGFrame;
 import pgserver.PGServer;
 
 /**
  * The GameplayListener class listens for network interactions with a client's
- * gameplay window.
+ * gameplay window.  Messages are picked apart by a ServerMessageDecoder,
+ * which calls back into this class.
+ * 
+ * Drawing (and clearing the canvas) goes straight onto the DrawZone's
+ * queue, in order with the points around it.  Everything else in a
+ * message (every part of a bundle) is decoded first and then applied to
+ * the window in one go on the event dispatch thread, so the window never
+ * shows half a bundle.
  * 
  * @author Billy Robbins
  * @version 2.0
  * @since 11/22/2015
  */
-public class GameplayListener extends Thread {
+public class GameplayListener extends Thread implements ServerMessageHandler {
 
 	// CONSTANTS
 	private static final String MSG_DRAWING = "Now Drawing: ";
@@ -30,22 +35,26 @@ public class GameplayListener extends Thread {
 	private static final String MSG_WAIT = "Waiting...";
 	
 	// DATA MEMBERS
-	private Socket socket = null;
+	private GameClient client;
 	private GameplayWindowEngine parent;
 	private boolean active;
+	private ServerMessageDecoder decoder;
+	private ArrayList<Runnable> batch; // window updates decoded from the current message
 	
 	/**
 	 * constructor for GameplayListener
 	 * 
-	 * @param s the socket connecting this client and the server
+	 * @param c the connection to the server
 	 * @param p parent GameplayWindowEngine
 	 */
-	public GameplayListener(Socket s, GameplayWindowEngine p)
+	public GameplayListener(GameClient c, GameplayWindowEngine p)
 	{
 		super("GameplayListener");
-		socket = s;
+		client = c;
 		parent = p;
 		active = false;
+		decoder = new ServerMessageDecoder(this);
+		batch = new ArrayList<Runnable>();
 	}
 	
 	/**
@@ -58,152 +67,294 @@ public class GameplayListener extends Thread {
 		
 		try
 		{
-			DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
-			
 			while(active)
+				handle(client.readMessage());
+		}
+		catch(IOException e)
+		{
+			JOptionPane.showMessageDialog(null, "ERROR: Connection to server lost");
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * decodes one message from the server (every part, if it is a bundle)
+	 * and then applies its window updates together
+	 * 
+	 * @param message the message
+	 */
+	private void handle(String message)
+	{
+		if(message.startsWith(PGServer.HEADER_BUNDLE))
+		{
+			String[] parts;
+			try
+			{
+				parts = PGFrame.unbundle(message);
+			}
+			catch(IllegalArgumentException e)
+			{
+				System.err.println("ERROR: Could not parse message - " + message);
+				return;
+			}
+			
+			for(int i = 0; i < parts.length; i++)
+				decode(parts[i]);
+		}
+		else
+			decode(message);
+		
+		if(batch.isEmpty())
+			return;
+		
+		final ArrayList<Runnable> updates = batch;
+		batch = new ArrayList<Runnable>();
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run()
 			{
-				String message = input.readUTF();
-				boolean parsed = false;
-				
-				while(!parsed)
+				for(int i = 0; i < updates.size(); i++)
 				{
 					try
 					{
-						if(message.startsWith(PGServer.HEADER_CHAT))
-						{
-							String chatMessage = message.substring(PGServer.HEADER_CHAT.length());
-							parent.chatMessageReceived(chatMessage);
-							parsed = true;
-						}
-						else if(message.startsWith(PGServer.HEADER_DRAWING))
-						{
-							if(message.contains(PGServer.DRAWING_RELEASE))
-							{
-								parent.networkMouseRelease();
-								parsed = true;
-							}
-							else if(message.contains(PGServer.DRAWING_CLEAR))
-							{
-								parent.networkClear();
-								parsed = true;
-							}
-							else
-							{
-								Scanner drawMessageScan = new Scanner(message.substring(PGServer.HEADER_DRAWING.length()));
-								int x = drawMessageScan.nextInt();
-								int y = drawMessageScan.nextInt();
-								int rgb = drawMessageScan.nextInt();
-								parent.drawingReceivedAt(x, y, new Color(rgb));
-								drawMessageScan.close();
-								parsed = true;
-							}
-						}
-						else if(message.startsWith(PGServer.HEADER_ROLE))
-						{
-							if(message.startsWith(PGServer.HEADER_ROLE + PGServer.ROLE_DRAW))
-							{
-								parent.setDrawing(true);
-								
-								String word = message.substring(PGServer.HEADER_ROLE.length() + PGServer.ROLE_DRAW.length());
-								String drawingMessage = MSG_DRAWING + " " + word;
-								parent.setStatus(drawingMessage);
-								parent.chatMessageReceived(drawingMessage);
-								parsed = true;
-							}
-							else // Guessing
-							{
-								parent.setDrawing(false);
-								
-								parent.setStatus(MSG_GUESSING);
-								parent.chatMessageReceived(MSG_GUESSING);
-								parsed = true;
-							}
-						}
-						else if(message.startsWith(PGServer.HEADER_GAME_UPDATE))
-						{
-							if(message.startsWith(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_START))
-							{
-								parent.chatMessageReceived(MSG_START);
-								parsed = true;
-							}
-							else if(message.startsWith(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_ROUND_END))
-							{
-								parent.chatMessageReceived(MSG_ROUND_OVER);
-								parent.roundEnd();
-								parent.setStatus(MSG_WAIT);
-								parsed = true;
-							}
-							else if(message.startsWith(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_CORRECT))
-							{
-								parent.correctGuess();
-								parent.chatMessageReceived(MSG_CORRECT);
-								parsed = true;
-							}
-							else if(message.startsWith(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_SCORE))
-							{
-								parseScoreUpdate(message.substring(PGServer.HEADER_GAME_UPDATE.length() + PGServer.UPDATE_SCORE.length()));
-								parsed = true;
-							}
-							else if(message.startsWith(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_GAME_END))
-							{
-								parent.gameEnded(message.substring(PGServer.HEADER_GAME_UPDATE.length() + PGServer.UPDATE_GAME_END.length()));
-								parsed = true;
-							}
-							else if(message.startsWith(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_REBALANCING))
-							{
-								parent.chatMessageReceived(PGServer.UPDATE_REBALANCING);
-								parsed = true;
-							}
-						}
-						else if(message.startsWith(PGServer.HEADER_CLIENT_LIST))
-						{
-							parent.updatePlayerList(message.substring(PGServer.HEADER_CLIENT_LIST.length()));
-							parsed = true;
-						}
-						else if(message.startsWith(PGServer.HEADER_GUESS_LIST))
-						{
-							parent.updateGuessList(message.substring(PGServer.HEADER_GUESS_LIST.length()));
-							parsed = true;
-						}
-						else if(message.startsWith(PGServer.HEADER_TIMER))
-						{
-							parent.updateTime(Integer.parseInt(message.substring(PGServer.HEADER_TIMER.length())));
-							parsed = true;
-						}
-						else if(message.startsWith(PGServer.HEADER_REMOVED))
-						{
-							active = false;
-							parsed = true;
-						}
-						else
-						{
-							System.err.println("ERROR: Could not parse message - " + message);
-							parsed = true;
-						}
+						updates.get(i).run();
+					}
+					catch(RuntimeException e)
+					{
+						// Keep applying the rest of the message
+						e.printStackTrace();
 					}
-					catch(NullPointerException npe){}
-					catch(IllegalArgumentException iae){}
 				}
 			}
+		});
+	}
+	
+	/**
+	 * decodes a single message, adding its window updates to the batch
+	 * 
+	 * @param message the message
+	 */
+	private void decode(String message)
+	{
+		try
+		{
+			if(!decoder.decode(message))
+				System.err.println("ERROR: Could not parse message - " + message);
 		}
-		catch(IOException e)
+		catch(IllegalArgumentException e)
 		{
-			JOptionPane.showMessageDialog(null, "ERROR: Connection to server lost");
-			System.exit(1);
+			System.err.println("ERROR: Could not parse message - " + message);
 		}
 	}
 	
 	/**
-	 * takes a score update and sets scoreboard to updated values
+	 * adds a chat line to the batch
 	 * 
-	 * @param scores string containing first score followed by space
-	 * and then second score (as formatted by PGServer.guessReceived)
+	 * @param message the line
 	 */
-	private void parseScoreUpdate(String scores)
+	private void addChat(final String message)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.chatMessageReceived(message);
+			}
+		});
+	}
+	
+	@Override
+	public void chat(String message)
+	{
+		addChat(message);
+	}
+	
+	@Override
+	public void drawPoint(int x, int y, int rgb)
+	{
+		parent.drawingReceivedAt(x, y, rgb);
+	}
+	
+	@Override
+	public void drawRelease()
+	{
+		parent.networkMouseRelease();
+	}
+	
+	@Override
+	public void drawClear()
+	{
+		parent.networkClear();
+	}
+	
+	@Override
+	public void roleDraw(String word)
+	{
+		final String drawingMessage = MSG_DRAWING + " " + word;
+		parent.networkClear();
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.setDrawing(true);
+				parent.setStatus(drawingMessage);
+			}
+		});
+		addChat(drawingMessage);
+	}
+	
+	@Override
+	public void roleGuess()
+	{
+		parent.networkClear();
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.setDrawing(false);
+				parent.setStatus(MSG_GUESSING);
+			}
+		});
+		addChat(MSG_GUESSING);
+	}
+	
+	@Override
+	public void gameStart()
 	{
-		Scanner scoreScan = new Scanner(scores);
-		parent.updateScore(scoreScan.nextInt(), scoreScan.nextInt());
-		scoreScan.close();
+		addChat(MSG_START);
+	}
+	
+	@Override
+	public void roundEnd()
+	{
+		addChat(MSG_ROUND_OVER);
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.roundEnd();
+				parent.setStatus(MSG_WAIT);
+			}
+		});
+	}
+	
+	@Override
+	public void correctGuess()
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.correctGuess();
+			}
+		});
+		addChat(MSG_CORRECT);
+	}
+	
+	@Override
+	public void score(final int team1, final int team2)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.updateScore(team1, team2);
+			}
+		});
+	}
+	
+	@Override
+	public void gameEnd(final String result)
+	{
+		parent.networkClear();
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.gameEnded(result);
+			}
+		});
+	}
+	
+	@Override
+	public void rebalancing()
+	{
+		addChat(PGServer.UPDATE_REBALANCING);
+	}
+	
+	@Override
+	public void playerList(final String list)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.updatePlayerList(list);
+			}
+		});
+	}
+	
+	@Override
+	public void playerJoined(final int team, final String name)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.playerJoined(team, name);
+			}
+		});
+	}
+	
+	@Override
+	public void playerLeft(final String name)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.playerLeft(name);
+			}
+		});
+	}
+	
+	@Override
+	public void playerTeamChanged(final int team, final String name)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.playerTeamChanged(team, name);
+			}
+		});
+	}
+	
+	@Override
+	public void guessList(final String list)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.updateGuessList(list);
+			}
+		});
+	}
+	
+	@Override
+	public void guessAdded(final String guess)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.guessAdded(guess);
+			}
+		});
+	}
+	
+	@Override
+	public void deadline(final long serverTime, final long deadline)
+	{
+		batch.add(new Runnable() {
+			public void run()
+			{
+				parent.setDeadline(serverTime, deadline);
+			}
+		});
+	}
+	
+	@Override
+	public void removed()
+	{
+		active = false;
 	}
 	
 }
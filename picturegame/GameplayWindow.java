@@ -6,7 +6,6 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GridLayout;
 import java.awt.Font;
-import java.net.Socket;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -63,6 +62,7 @@ public class GameplayWindow {
 	JTextField fieldChat;
 	JButton buttonChat;
 	JTextArea areaPlayers;
+	PlayerList playerList;
 	JTextArea areaGuesses;
 	JTextField fieldTime;
 	JTextField team1Score;
@@ -79,16 +79,16 @@ public class GameplayWindow {
 	/**
 	 * constructor for GameplayWindow
 	 * 
-	 * @param socket the client's socket
+	 * @param client the client's connection to the server
 	 * @param parent the picturegame to which this 
 	 */
-	public GameplayWindow(Socket socket, PictureGame p)
+	public GameplayWindow(GameClient client, PictureGame p)
 	{
 		parent = p;
 		
 		// Initialize main panel and engine
 		JPanel panelMain = new JPanel(new BorderLayout());
-		engine = new GameplayWindowEngine(socket, this);
+		engine = new GameplayWindowEngine(client, this);
 		
 		// North panel - status (just a text field)
 		fieldStatus = new JTextField(FIELD_STATUS_TEXT);
@@ -224,6 +224,7 @@ public class GameplayWindow {
 		areaPlayers = new JTextArea("");
 		areaPlayers.setEditable(false);
 		areaPlayers.setWrapStyleWord(true);
+		playerList = new PlayerList(areaPlayers);
 		JScrollPane scrollPlayers = new JScrollPane(areaPlayers, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
 				JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
 		panelPlayers.add(scrollPlayers, BorderLayout.CENTER);
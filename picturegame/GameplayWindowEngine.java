@@ -7,11 +7,9 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.net.Socket;
 import javax.swing.JOptionPane;
-import pgserver.PGServerThread;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 /**
  * The GameplayWindowEngine class is the backbone for client-side actions
@@ -36,6 +34,9 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	// CONSTANTS - Drawing messages
 	public static final String DRAWING_RELEASE = "Release";
 	
+	// CONSTANTS - Countdown
+	private static final int COUNTDOWN_MILLISECONDS = 200; // how often the timer field is refreshed
+	
 	// CONSTANTS - Sound files
 	/**
 	 * path to a sound file to be played when a round ends by correct guess
@@ -52,41 +53,43 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	private static final String SOUND_TIMEOUT = "round_over_timeout.wav";
 	
 	// CONSTANTS - Error Messages
-	private static final String MSG_ERR_CHAT_SEND = "ERROR: Could not send chat message";
-	private static final String MSG_ERR_DRAWING_SEND = "ERROR: Could not sent drawing update";
-	private static final String MSG_ERR_CONNECTION = "ERROR: Could not connect to server";
-	private static final String MSG_ERR_GUESS_SEND = "ERROR: Could not send guess";
-	private static final String MSG_ERR_INFO = "ERROR: Could not update lobby info";
+	private static final String MSG_ERR_SEND = "ERROR: Could not send to server";
 	
 	// DATA MEMBERS
 	private GameplayWindow parent;
-	private DataOutputStream output;
+	private GameClient client; // connection to the server, sends off the event dispatch thread
 	private GameplayListener listener;
 	private boolean isDrawing = false; 
+	private StrokeSimplifier simplifier = new StrokeSimplifier(StrokeSimplifier.DEFAULT_TOLERANCE);
+	private Timer countdown;
+	private volatile long deadline; // end of the round or wait time, on this machine's clock
+	private int shownTime = -1;
 	
 	/**
 	 * constructor for the GameplayWindowEngine class
 	 * 
-	 * @param s socket to which this window is connected
+	 * @param c connection to the server
 	 * @param p the window to which this engine belongs
 	 */
-	public GameplayWindowEngine(Socket s, GameplayWindow p)
+	public GameplayWindowEngine(GameClient c, GameplayWindow p)
 	{
 		parent = p;
+		countdown = new Timer(COUNTDOWN_MILLISECONDS, this);
+		SoundPlayer.preload(SOUND_GUESS_CORRECT, SOUND_TIMEOUT);
 		
-		try
-		{
-			
-			output = new DataOutputStream(s.getOutputStream());
-			listener = new GameplayListener(s, this);
-			listener.start();
-			 
-		}
-		catch(IOException e)
-		{
-			e.printStackTrace();
-			System.exit(1);
-		}
+		client = c;
+		client.setOnSendFailure(new Runnable() {
+			public void run()
+			{
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run()
+					{
+						parent.areaChat.append(MSG_ERR_SEND + "\n");
+					}
+				});
+			}
+		});
+		listener = new GameplayListener(client, this);
 	}
 	
 	/**
@@ -94,7 +97,9 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	 */
 	public void actionPerformed(ActionEvent e)
 	{
-		if((e.getSource() == parent.buttonChat) && !parent.fieldChat.getText().equals(""))
+		if(e.getSource() == countdown)
+			countDown();
+		else if((e.getSource() == parent.buttonChat) && !parent.fieldChat.getText().equals(""))
 			sendChatMessage(parent.fieldChat.getText());
 		else if((e.getSource() == parent.buttonGuess) && !parent.fieldGuess.getText().equals(""))
 			guess(parent.fieldGuess.getText());
@@ -135,15 +140,7 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 			}
 		else if((e.getSource() == parent.buttonClear) && isDrawing)
 			{
-				try
-				{
-					output.writeUTF(HEADER_CLEAR);
-					output.flush();
-				}
-				catch(IOException clearException)
-				{
-					parent.areaChat.append(MSG_ERR_DRAWING_SEND + "\n");
-				}
+				client.sendClear();
 				parent.drawZone.reset();
 			}
 		
@@ -157,16 +154,7 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	private void sendChatMessage(String message)
 	{
 		parent.fieldChat.setText("");
-		
-		try
-		{
-			output.writeUTF(HEADER_CHAT + message);
-			output.flush();
-		}
-		catch(IOException e)
-		{
-			parent.areaChat.append(MSG_ERR_CHAT_SEND + "\n");
-		}
+		client.sendChat(message);
 	}
 	
 	/**
@@ -195,25 +183,18 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	 */
 	public void getLobbyInfo()
 	{
-		try
-		{
-			output.writeUTF(HEADER_INFO);
-			output.flush();
-		}
-		catch(IOException e)
-		{
-			parent.areaChat.append(MSG_ERR_CONNECTION + "\n");
-		}
+		client.requestInfo();
 	}
 	
 	/**
-	 * tells engine if this user is drawing or not
+	 * tells engine if this user is drawing or not (the canvas is cleared
+	 * separately, in line with the drawing, by networkClear)
 	 * 
 	 * @param d whether or not this user is drawing
 	 */
 	public void setDrawing(boolean d)
 	{
-		parent.drawZone.reset();
+		discardStroke();
 		if(d)
 			enableDrawzone();
 		else
@@ -230,17 +211,11 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	@Override
 	public void windowClosed(WindowEvent arg0)
 	{	
-		try
-		{
-			output.writeUTF(PGServerThread.MESSAGE_LEAVE_LOBBY);
-			output.flush();
-		}
-		catch(IOException e)
-		{
-			e.printStackTrace();
-			System.exit(1);
-		}
+		countdown.stop();
+		parent.drawZone.stopRendering();
+		SoundPlayer.closeAll();
 		
+		client.leaveLobby();
 		parent.close();
 	}
 
@@ -331,34 +306,53 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	}
 	
 	/**
-	 * Called when drawzone is drawn on
+	 * Called when drawzone is drawn on, sends the point if the other
+	 * players' curve needs it (see StrokeSimplifier)
 	 * @param x x coordinate
 	 * @param y y coordinate
 	 * @param c color
 	 */
 	public void drawingAt(int x, int y, Color c)
 	{
-		try
-		{
-			output.writeUTF(HEADER_DRAWING + x + " " + y + " " + c.getRGB());
-			output.flush();
-		}
-		catch(IOException e)
-		{
-			parent.areaChat.append(MSG_ERR_DRAWING_SEND + "\n");
-		}
+		if(simplifier.add(x, y, c.getRGB()))
+			sendDrawing();
+	}
+	
+	/**
+	 * forgets a stroke left unfinished when the turn changed (its release
+	 * never reaches the engine once drawing is disabled), so the next
+	 * stroke doesn't start with stale points
+	 */
+	private void discardStroke()
+	{
+		// On the event dispatch thread, after any drag events already queued
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run()
+			{
+				simplifier.end();
+			}
+		});
+	}
+	
+	/**
+	 * sends the point the stroke simplifier picked
+	 */
+	private void sendDrawing()
+	{
+		client.sendPoint(StrokeModel.toUnits(simplifier.getX(), parent.drawZone.getWidth()),
+				StrokeModel.toUnits(simplifier.getY(), parent.drawZone.getHeight()), simplifier.getColor());
 	}
 	
 	/**
 	 * called when drawing update is received
 	 * 
-	 * @param x x coordinate
-	 * @param y y coordinate
-	 * @param c color
+	 * @param x x coordinate in StrokeModel.UNITS of the canvas width
+	 * @param y y coordinate in StrokeModel.UNITS of the canvas height
+	 * @param rgb color
 	 */
-	public void drawingReceivedAt(int x, int y, Color c)
+	public void drawingReceivedAt(int x, int y, int rgb)
 	{
-		parent.drawZone.drawReceivedAt(x, y, c);
+		parent.drawZone.queueReceivedAt(x, y, rgb);
 	}
 	
 	/**
@@ -370,15 +364,7 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	{
 		parent.fieldGuess.setText("");
 		
-		try
-		{
-			output.writeUTF(HEADER_GUESS + guess);
-			output.flush();
-		}
-		catch(IOException e)
-		{
-			parent.areaChat.append(MSG_ERR_GUESS_SEND + "\n");
-		}
+		client.sendGuess(guess);
 	}
 	
 	
@@ -387,15 +373,10 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	 */
 	public void mouseRelease()
 	{
-		try
-		{
-			output.writeUTF(HEADER_DRAWING + DRAWING_RELEASE);
-			output.flush();
-		}
-		catch(IOException e)
-		{
-			parent.areaChat.append(MSG_ERR_DRAWING_SEND + "\n");
-		}
+		if(simplifier.end())
+			sendDrawing();
+		
+		client.sendRelease();
 	}
 	
 	/**
@@ -403,17 +384,49 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	 */
 	public void networkMouseRelease()
 	{
-		parent.drawZone.networkMouseRelease();
+		parent.drawZone.queueRelease();
 	}
 	
 	/**
-	 * updates the list of players on the server
+	 * replaces the list of players in the lobby with a full snapshot
 	 * 
-	 * @param playerList the list of players as a single string
+	 * @param playerList the snapshot (see PGLobby.getRosterFrame)
 	 */
 	public void updatePlayerList(String playerList)
 	{
-		parent.areaPlayers.setText(playerList);
+		parent.playerList.setSnapshot(playerList);
+	}
+	
+	/**
+	 * adds a player who joined the lobby to the player list
+	 * 
+	 * @param team the player's team
+	 * @param name the player's username
+	 */
+	public void playerJoined(int team, String name)
+	{
+		parent.playerList.playerJoined(team, name);
+	}
+	
+	/**
+	 * removes a player who left the lobby from the player list
+	 * 
+	 * @param name the player's username
+	 */
+	public void playerLeft(String name)
+	{
+		parent.playerList.playerLeft(name);
+	}
+	
+	/**
+	 * moves a player to a new team in the player list
+	 * 
+	 * @param team the player's new team
+	 * @param name the player's username
+	 */
+	public void playerTeamChanged(int team, String name)
+	{
+		parent.playerList.teamChanged(team, name);
 	}
 	
 	public void updateCurrentPlayer(String player)
@@ -422,7 +435,7 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	}
 	
 	/**
-	 * updates the list of guesses for the team
+	 * replaces the list of guesses for the team with a full snapshot
 	 * 
 	 * @param guessList the list of guesses for the team
 	 */
@@ -431,6 +444,16 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 		parent.areaGuesses.setText(guessList);
 	}
 	
+	/**
+	 * appends a single new guess to the team's guess list
+	 * 
+	 * @param guess the guess a teammate just made
+	 */
+	public void guessAdded(String guess)
+	{
+		parent.areaGuesses.append(guess + "\n");
+	}
+	
 	/**
 	 * updates timer field
 	 * 
@@ -442,33 +465,63 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	}
 	
 	/**
-	 * gets lobby information for this window
+	 * starts counting down to a new deadline from the server
+	 * 
+	 * @param serverTime the server's clock when it sent the deadline
+	 * @param serverDeadline the deadline on the server's clock
 	 */
-	public void initialize(String username)
+	public void setDeadline(long serverTime, long serverDeadline)
 	{
-		try
-		{
-			updateCurrentPlayer(username);
-			output.writeUTF(HEADER_INFO);
-			output.flush();
-		}
-		catch(IOException e)
+		// Shift onto our clock, ignoring the (small) time spent in transit
+		deadline = serverDeadline - serverTime + System.currentTimeMillis();
+		countdown.start();
+	}
+	
+	/**
+	 * refreshes the timer field from the deadline, stopping at 0
+	 */
+	private void countDown()
+	{
+		long left = deadline - System.currentTimeMillis();
+		int time = (int) Math.max(0, (left + 999) / 1000);
+		if(time != shownTime)
 		{
-			parent.areaChat.append(MSG_ERR_INFO);
+			shownTime = time;
+			updateTime(time);
 		}
+		
+		if(time == 0)
+			countdown.stop();
 	}
 	
 	/**
-	 * lets the player know the game has ended
+	 * starts listening to the server once the window is built and gets
+	 * lobby information for it
+	 */
+	public void initialize(String username)
+	{
+		updateCurrentPlayer(username);
+		listener.start();
+		client.requestInfo();
+	}
+	
+	/**
+	 * lets the player know the game has ended (the dialog opens after
+	 * the rest of the current update, so it holds nothing up)
 	 * 
 	 * @param message message to display to the user
 	 */
-	public void gameEnded(String message)
+	public void gameEnded(final String message)
 	{
-		JOptionPane.showMessageDialog(parent.drawZone, message);
-		parent.drawZone.reset();
 		parent.drawZone.disableDrawing();
+		discardStroke();
 		parent.fieldStatus.setText("Waiting...");
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run()
+			{
+				JOptionPane.showMessageDialog(parent.drawZone, message);
+			}
+		});
 	}
 	
 	/**
@@ -476,7 +529,7 @@ public class GameplayWindowEngine implements ActionListener, WindowListener, Key
 	 */
 	public void networkClear()
 	{
-		parent.drawZone.reset();
+		parent.drawZone.queueReset();
 	}
 	
 	/**
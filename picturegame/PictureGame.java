@@ -1,21 +1,21 @@
 package picturegame;
 
+import javax.swing.JList;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
 
 import pgserver.PGLobby;
 import pgserver.PGServerThread;
 
-import java.io.BufferedInputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.InetAddress;
-import java.net.Socket;
 import java.net.UnknownHostException;
 
 /**
  * The PictureGame class launches a client's game.  It handles server connection, lobby selection,
- * and creates a GameplayWindow when a lobby is joined.
+ * and creates a GameplayWindow when a lobby is joined.  The protocol itself is spoken by a
+ * GameClient, which the window keeps using once a lobby is joined.
  * 
  * @author Billy Robbins
  * @version 2.0
@@ -39,16 +39,16 @@ public class PictureGame {
 	private static final String MSG_LOBBY_TYPE = "What type of lobby do you want to join?";
 	private static final String MSG_PRIVATE_KEY = "Please enter the private game key";
 	private static final String MSG_PRIVATE_OPTION = "Create or join a private game?";
+	private static final String MSG_CATEGORIES = "Choose word categories (none selected plays all)";
 	private static final String NAME_LOBBY_TYPE = "Lobby Type";
 	private static final String NAME_PRIVATE_OPTION = "Create or Join";
 	private static final int PRIVATE_OPTION_CREATE = JOptionPane.YES_OPTION;
 	private static final String[] PRIVATE_OPTIONS = {"Create", "Join"};
 	private static final int DEFAULT_PORT = 6789;
+	private static final long QUIT_WAIT_MILLISECONDS = 2000; // longest to wait for queued messages on quit
 	
 	// DATA MEMBERS
-	private Socket socket = null;
-	private DataOutputStream output;
-	private DataInputStream input;
+	private GameClient client;
 	private String username = "";
 	/**
 	 * Constructor for the PictureGame class
@@ -60,9 +60,7 @@ public class PictureGame {
 	public PictureGame(String hostname, int port) throws IOException
 	{
 		// Connect to main server
-		socket = new Socket(hostname, port);
-		output = new DataOutputStream(socket.getOutputStream());
-		input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		client = new GameClient(hostname, port);
 		
 		// Get username
 		//String username;
@@ -86,96 +84,88 @@ public class PictureGame {
      */
 	public void lobbySelect()
 	{
-		try
+		// Loop until user chooses to quit
+		int lobbyType = JOptionPane.showOptionDialog(null, MSG_LOBBY_TYPE, NAME_LOBBY_TYPE, JOptionPane.YES_NO_CANCEL_OPTION,
+				JOptionPane.QUESTION_MESSAGE, null, LOBBY_TYPE_OPTIONS, LOBBY_OPTION_QUIT);
+		
+		if(lobbyType == LOBBY_OPTION_PUBLIC)
+		{
+			if(joinPublicLobby())
+				gameplay();
+			else
+				JOptionPane.showMessageDialog(null, MSG_ERR_PUBLIC_CONNECTION);
+		}
+		else if(lobbyType == LOBBY_OPTION_PRIVATE)
 		{
-			// Loop until user chooses to quit
-			int lobbyType = JOptionPane.showOptionDialog(null, MSG_LOBBY_TYPE, NAME_LOBBY_TYPE, JOptionPane.YES_NO_CANCEL_OPTION,
-					JOptionPane.QUESTION_MESSAGE, null, LOBBY_TYPE_OPTIONS, LOBBY_OPTION_QUIT);
+			int privateOption = JOptionPane.showOptionDialog(null, MSG_PRIVATE_OPTION, NAME_PRIVATE_OPTION, JOptionPane.YES_NO_OPTION,
+					JOptionPane.QUESTION_MESSAGE, null, PRIVATE_OPTIONS, PRIVATE_OPTION_CREATE);
 			
-			if(lobbyType == LOBBY_OPTION_PUBLIC)
+			if(privateOption == PRIVATE_OPTION_CREATE)
 			{
-				if(joinPublicLobby())
-					gameplay();
-				else
-					JOptionPane.showMessageDialog(null, MSG_ERR_PUBLIC_CONNECTION);
-			}
-			else if(lobbyType == LOBBY_OPTION_PRIVATE)
-			{
-				int privateOption = JOptionPane.showOptionDialog(null, MSG_PRIVATE_OPTION, NAME_PRIVATE_OPTION, JOptionPane.YES_NO_OPTION,
-						JOptionPane.QUESTION_MESSAGE, null, PRIVATE_OPTIONS, PRIVATE_OPTION_CREATE);
+				int timeLimit = 0;
+				int scoreLimit = 0;
 				
-				if(privateOption == PRIVATE_OPTION_CREATE)
+				boolean valid = false;
+				while(!valid)
 				{
-					int timeLimit = 0;
-					int scoreLimit = 0;
-					
-					boolean valid = false;
-					while(!valid)
+					try
 					{
-						try
-						{
-							timeLimit = Integer.parseInt(JOptionPane.showInputDialog("Enter a round time limit (in seconds)"));
-						}
-						catch(NumberFormatException nfe)
-						{
-							timeLimit = -1;
-						}
-						
-						if((timeLimit >= PGLobby.TIMER_MIN) && (timeLimit <= PGLobby.TIMER_MAX))
-							valid = true;
-						else
-							JOptionPane.showMessageDialog(null, "ERROR: Please enter a valid time limit (a number between "
-									+ PGLobby.TIMER_MIN + " and " + PGLobby.TIMER_MAX + ")");
+						timeLimit = Integer.parseInt(JOptionPane.showInputDialog("Enter a round time limit (in seconds)"));
 					}
-					
-					valid = false;
-					while(!valid)
+					catch(NumberFormatException nfe)
 					{
-						try
-						{
-							scoreLimit = Integer.parseInt(JOptionPane.showInputDialog("Enter a score limit"));
-						}
-						catch(NumberFormatException nfe)
-						{
-							scoreLimit = -1;
-						}
-						
-						if((scoreLimit >= PGLobby.SCORE_MIN) && (scoreLimit <= PGLobby.SCORE_MAX))
-							valid = true;
-						else
-							JOptionPane.showMessageDialog(null, "ERROR: Please enter a valid score limit (a number between "
-									+ PGLobby.SCORE_MIN + " and " + PGLobby.SCORE_MAX + ")");
+						timeLimit = -1;
 					}
 					
-					if(createPrivateLobby(timeLimit, scoreLimit))
-						gameplay();
+					if((timeLimit >= PGLobby.TIMER_MIN) && (timeLimit <= PGLobby.TIMER_MAX))
+						valid = true;
 					else
-						JOptionPane.showMessageDialog(null, MSG_ERR_PRIVATE_CONNECTION);
-				}  
-				else // Join a private lobby
+						JOptionPane.showMessageDialog(null, "ERROR: Please enter a valid time limit (a number between "
+								+ PGLobby.TIMER_MIN + " and " + PGLobby.TIMER_MAX + ")");
+				}
+				
+				valid = false;
+				while(!valid)
 				{
-					String key = JOptionPane.showInputDialog(null, MSG_PRIVATE_KEY);
-					if(key != null)
+					try
+					{
+						scoreLimit = Integer.parseInt(JOptionPane.showInputDialog("Enter a score limit"));
+					}
+					catch(NumberFormatException nfe)
 					{
-						if(joinPrivateLobby(key))
-							gameplay();
-						else
-							JOptionPane.showMessageDialog(null, MSG_ERR_PRIVATE_CONNECTION);
+						scoreLimit = -1;
 					}
+					
+					if((scoreLimit >= PGLobby.SCORE_MIN) && (scoreLimit <= PGLobby.SCORE_MAX))
+						valid = true;
+					else
+						JOptionPane.showMessageDialog(null, "ERROR: Please enter a valid score limit (a number between "
+								+ PGLobby.SCORE_MIN + " and " + PGLobby.SCORE_MAX + ")");
 				}
-			}
-			else // Close connection and quit
+				
+				String categories = chooseCategories();
+				
+				if(createPrivateLobby(timeLimit, scoreLimit, categories))
+					gameplay();
+				else
+					JOptionPane.showMessageDialog(null, MSG_ERR_PRIVATE_CONNECTION);
+			}  
+			else // Join a private lobby
 			{
-				output.close();
-				input.close();
-				socket.close();
-				System.exit(0);
+				String key = JOptionPane.showInputDialog(null, MSG_PRIVATE_KEY);
+				if(key != null)
+				{
+					if(joinPrivateLobby(key))
+						gameplay();
+					else
+						JOptionPane.showMessageDialog(null, MSG_ERR_PRIVATE_CONNECTION);
+				}
 			}
 		}
-		catch(IOException e)
+		else // Close connection and quit
 		{
-			e.printStackTrace();
-			System.exit(1);
+			client.close(QUIT_WAIT_MILLISECONDS);
+			System.exit(0);
 		}
 	}
 	
@@ -190,11 +180,7 @@ public class PictureGame {
 	{
 		try
 		{
-			output.writeUTF(username);
-			output.flush();
-			
-			String result = input.readUTF();
-			return result.equals(PGServerThread.MESSAGE_USERNAME_SUCCESS);
+			return client.claimUsername(username);
 		}
 		catch(IOException e)
 		{
@@ -214,11 +200,7 @@ public class PictureGame {
 	{
 		try
 		{
-			output.writeUTF(PGServerThread.MESSAGE_JOIN_PUBLIC);
-			output.flush();
-			
-			String result = input.readUTF();
-			return result.equals(PGServerThread.MESSAGE_JOIN_SUCCESS);
+			return client.joinPublicLobby();
 		}
 		catch(IOException e)
 		{
@@ -227,21 +209,54 @@ public class PictureGame {
 		}
 	}
 	
+	/**
+	 * Asks the server for its word list categories and lets the user
+	 * pick some
+	 * 
+	 * @return the chosen categories joined by PGServerThread.CATEGORY_SEPARATOR,
+	 * or an empty string to play all categories
+	 */
+	private String chooseCategories()
+	{
+		String[] names;
+		try
+		{
+			names = client.listCategories();
+			if(names.length == 0)
+				return "";
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+			return "";
+		}
+		
+		JList<String> categoryList = new JList<String>(names);
+		categoryList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+		Object[] message = {MSG_CATEGORIES, new JScrollPane(categoryList)};
+		JOptionPane.showMessageDialog(null, message);
+		
+		String categories = "";
+		for(String name : categoryList.getSelectedValuesList())
+			categories += (categories.length() == 0 ? "" : PGServerThread.CATEGORY_SEPARATOR) + name;
+		
+		return categories;
+	}
+	
 	/**
 	 * Brings up an options menu for a private lobby
 	 * 
+	 * @param timeLimit round time limit
+	 * @param scoreLimit score limit
+	 * @param categories categories to play (see chooseCategories)
 	 * @return <b>true</b> if lobby created and joined successfully,
 	 * <b>false</b> if creation or join is unsuccessful
 	 */
-	private boolean createPrivateLobby(int timeLimit, int scoreLimit)
+	private boolean createPrivateLobby(int timeLimit, int scoreLimit, String categories)
 	{
 		try
 		{
-			output.writeUTF(PGServerThread.MESSAGE_CREATE_PRIVATE + " " + timeLimit + " " + scoreLimit);
-			output.flush();
-			
-			String result = input.readUTF();
-			return result.equals(PGServerThread.MESSAGE_JOIN_SUCCESS);
+			return client.createPrivateLobby(timeLimit, scoreLimit, categories);
 		}
 		catch(IOException e)
 		{
@@ -255,7 +270,7 @@ public class PictureGame {
 	 */
 	private void gameplay()
 	{
-		new GameplayWindow(socket, this);
+		new GameplayWindow(client, this);
 	}
 	
 	/**
@@ -332,11 +347,7 @@ public class PictureGame {
 	{
 		try
 		{
-			output.writeUTF(PGServerThread.MESSAGE_JOIN_PRIVATE + key);
-			output.flush();
-			
-			String result = input.readUTF();
-			return result.equals(PGServerThread.MESSAGE_JOIN_SUCCESS);
+			return client.joinPrivateLobby(key);
 		}
 		catch(IOException e)
 		{
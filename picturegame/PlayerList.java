@@ -0,0 +1,222 @@
+package picturegame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Scanner;
+
+import javax.swing.JTextArea;
+
+import pgserver.PGLobby;
+
+/**
+ * The PlayerList class keeps the players area of the gameplay window in
+ * step with the server's player list.  A full snapshot rewrites the area;
+ * join, leave and team updates only insert or remove the affected line.
+ * 
+ * While a game is playing players are grouped by team under headings,
+ * otherwise they are listed in the order they joined.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class PlayerList {
+	
+	// CONSTANTS
+	private static final String[] HEADINGS_PLAYING = {"TEAM ONE:\n", "\nTEAM TWO:\n", "\nNOT ON TEAM:\n"};
+	private static final String[] HEADINGS_WAITING = {""};
+	private static final String LINE_PREFIX = " - ";
+	private static final String PLAYING = "1";
+	private static final int HIDDEN = -1; // players on no team while playing aren't shown
+	
+	// DATA MEMBERS
+	private JTextArea area;
+	private boolean playing;
+	private String[] headings;
+	private ArrayList<ArrayList<String>> sections;
+	private HashMap<String, Integer> teams; // username -> team
+	
+	/**
+	 * constructor for PlayerList
+	 * 
+	 * @param a the text area showing the players
+	 */
+	public PlayerList(JTextArea a)
+	{
+		area = a;
+		teams = new HashMap<String, Integer>();
+		setPlaying(false);
+	}
+	
+	/**
+	 * replaces the whole list with a snapshot from the server
+	 * 
+	 * @param snapshot body of a HEADER_CLIENT_LIST message
+	 */
+	public void setSnapshot(String snapshot)
+	{
+		Scanner lines = new Scanner(snapshot);
+		setPlaying(lines.hasNextLine() && lines.nextLine().equals(PLAYING));
+		teams.clear();
+		
+		while(lines.hasNextLine())
+		{
+			String line = lines.nextLine();
+			int split = line.indexOf(' ');
+			if(split == -1)
+				continue;
+			
+			String name = line.substring(split + 1);
+			int team = Integer.parseInt(line.substring(0, split));
+			teams.put(name, team);
+			int section = sectionOf(team);
+			if(section != HIDDEN)
+				sections.get(section).add(name);
+		}
+		lines.close();
+		
+		StringBuilder text = new StringBuilder();
+		for(int s = 0; s < sections.size(); s++)
+		{
+			text.append(headings[s]);
+			for(int i = 0; i < sections.get(s).size(); i++)
+				text.append(LINE_PREFIX).append(sections.get(s).get(i)).append('\n');
+		}
+		area.setText(text.toString());
+	}
+	
+	/**
+	 * adds a player who joined
+	 * 
+	 * @param team the player's team
+	 * @param name the player's username
+	 */
+	public void playerJoined(int team, String name)
+	{
+		if(teams.containsKey(name))
+			playerLeft(name);
+		
+		teams.put(name, team);
+		insert(sectionOf(team), name);
+	}
+	
+	/**
+	 * removes a player who left
+	 * 
+	 * @param name the player's username
+	 */
+	public void playerLeft(String name)
+	{
+		Integer team = teams.remove(name);
+		if(team != null)
+			remove(sectionOf(team), name);
+	}
+	
+	/**
+	 * moves a player to a new team
+	 * 
+	 * @param team the player's new team
+	 * @param name the player's username
+	 */
+	public void teamChanged(int team, String name)
+	{
+		Integer oldTeam = teams.put(name, team);
+		if(oldTeam != null)
+			remove(sectionOf(oldTeam), name);
+		
+		insert(sectionOf(team), name);
+	}
+	
+	/**
+	 * switches between the grouped (playing) and plain layouts
+	 * 
+	 * @param p whether or not the lobby is playing
+	 */
+	private void setPlaying(boolean p)
+	{
+		playing = p;
+		headings = playing ? HEADINGS_PLAYING : HEADINGS_WAITING;
+		sections = new ArrayList<ArrayList<String>>();
+		for(int s = 0; s < headings.length; s++)
+			sections.add(new ArrayList<String>());
+	}
+	
+	/**
+	 * gives the section a team is shown in
+	 * 
+	 * @param team the team
+	 * @return index into sections, or HIDDEN
+	 */
+	private int sectionOf(int team)
+	{
+		if(!playing)
+			return 0;
+		else if(team == PGLobby.TEAM_1)
+			return 0;
+		else if(team == PGLobby.TEAM_2)
+			return 1;
+		else if(team == PGLobby.TEAM_WAIT)
+			return 2;
+		
+		return HIDDEN;
+	}
+	
+	/**
+	 * adds a player line to the end of a section
+	 * 
+	 * @param section the section to add to
+	 * @param name the player's username
+	 */
+	private void insert(int section, String name)
+	{
+		if(section == HIDDEN)
+			return;
+		
+		ArrayList<String> names = sections.get(section);
+		int offset = offsetOf(section, names.size());
+		names.add(name);
+		area.insert(LINE_PREFIX + name + "\n", offset);
+	}
+	
+	/**
+	 * removes a player line from a section
+	 * 
+	 * @param section the section holding the player
+	 * @param name the player's username
+	 */
+	private void remove(int section, String name)
+	{
+		if(section == HIDDEN)
+			return;
+		
+		ArrayList<String> names = sections.get(section);
+		int index = names.indexOf(name);
+		if(index == -1)
+			return;
+		
+		int offset = offsetOf(section, index);
+		names.remove(index);
+		area.replaceRange("", offset, offset + LINE_PREFIX.length() + name.length() + 1);
+	}
+	
+	/**
+	 * finds where a player's line starts in the text area
+	 * 
+	 * @param section the player's section
+	 * @param index the player's position within the section
+	 * @return character offset of the line
+	 */
+	private int offsetOf(int section, int index)
+	{
+		int offset = 0;
+		for(int s = 0; s <= section; s++)
+		{
+			offset += headings[s].length();
+			int lines = (s == section) ? index : sections.get(s).size();
+			for(int i = 0; i < lines; i++)
+				offset += LINE_PREFIX.length() + sections.get(s).get(i).length() + 1;
+		}
+		
+		return offset;
+	}
+}
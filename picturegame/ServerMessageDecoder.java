@@ -0,0 +1,281 @@
+package picturegame;
+
+import pgserver.PGFrame;
+import pgserver.PGServer;
+
+/**
+ * The ServerMessageDecoder class turns messages from the server into
+ * calls on a ServerMessageHandler.  Headers are looked up in a table
+ * indexed by their first character instead of trying each one in turn,
+ * and numbers are read straight out of the message, so decoding a
+ * drawing point creates no objects.
+ * 
+ * A message with a known header but bad fields throws
+ * IllegalArgumentException; a message with an unknown header is left
+ * to the caller.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class ServerMessageDecoder {
+	
+	// CONSTANTS - Kinds of message
+	private static final int BUNDLE = 0;
+	private static final int CHAT = 1;
+	private static final int DRAW_RELEASE = 2;
+	private static final int DRAW_CLEAR = 3;
+	private static final int DRAW_POINT = 4;
+	private static final int ROLE_DRAW = 5;
+	private static final int ROLE_GUESS = 6;
+	private static final int GAME_START = 7;
+	private static final int ROUND_END = 8;
+	private static final int CORRECT = 9;
+	private static final int SCORE = 10;
+	private static final int GAME_END = 11;
+	private static final int REBALANCING = 12;
+	private static final int PLAYER_LIST = 13;
+	private static final int PLAYER_JOINED = 14;
+	private static final int PLAYER_LEFT = 15;
+	private static final int PLAYER_TEAM = 16;
+	private static final int GUESS_LIST = 17;
+	private static final int GUESS_ADDED = 18;
+	private static final int DEADLINE = 19;
+	private static final int REMOVED = 20;
+	
+	// CONSTANTS - Header table (a header must come before any header it starts with)
+	private static final String[] HEADERS = {
+		PGServer.HEADER_BUNDLE,
+		PGServer.HEADER_CHAT,
+		PGServer.HEADER_DRAWING + PGServer.DRAWING_RELEASE,
+		PGServer.HEADER_DRAWING + PGServer.DRAWING_CLEAR,
+		PGServer.HEADER_DRAWING,
+		PGServer.HEADER_ROLE + PGServer.ROLE_DRAW,
+		PGServer.HEADER_ROLE,
+		PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_START,
+		PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_ROUND_END,
+		PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_CORRECT,
+		PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_SCORE,
+		PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_GAME_END,
+		PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_REBALANCING,
+		PGServer.HEADER_CLIENT_LIST,
+		PGServer.HEADER_PLAYER_JOINED,
+		PGServer.HEADER_PLAYER_LEFT,
+		PGServer.HEADER_PLAYER_TEAM,
+		PGServer.HEADER_GUESS_LIST,
+		PGServer.HEADER_GUESS_ADDED,
+		PGServer.HEADER_DEADLINE,
+		PGServer.HEADER_REMOVED};
+	private static final boolean[] EXACT = new boolean[HEADERS.length]; // whole message, not a prefix
+	private static final int[][] BY_FIRST_CHAR = new int[128][]; // header indexes, in table order
+	
+	static
+	{
+		EXACT[DRAW_RELEASE] = true;
+		EXACT[DRAW_CLEAR] = true;
+		
+		int[] counts = new int[BY_FIRST_CHAR.length];
+		for(int h = 0; h < HEADERS.length; h++)
+			counts[HEADERS[h].charAt(0)]++;
+		for(int c = 0; c < BY_FIRST_CHAR.length; c++)
+			BY_FIRST_CHAR[c] = new int[counts[c]];
+		for(int h = 0; h < HEADERS.length; h++)
+		{
+			int c = HEADERS[h].charAt(0);
+			BY_FIRST_CHAR[c][BY_FIRST_CHAR[c].length - counts[c]--] = h;
+		}
+	}
+	
+	// DATA MEMBERS
+	private ServerMessageHandler handler;
+	
+	/**
+	 * constructor for ServerMessageDecoder
+	 * 
+	 * @param h handler to pass decoded messages to
+	 */
+	public ServerMessageDecoder(ServerMessageHandler h)
+	{
+		handler = h;
+	}
+	
+	/**
+	 * decodes a message (every part of a bundle, in order) and passes it
+	 * to the handler
+	 * 
+	 * @param message the message
+	 * @return <b>true</b> if the message was handled, <b>false</b> if its
+	 * header is unknown
+	 * @throws IllegalArgumentException if the message is malformed
+	 */
+	public boolean decode(String message)
+	{
+		int kind = kindOf(message);
+		if(kind == -1)
+			return false;
+		
+		int at = HEADERS[kind].length();
+		switch(kind)
+		{
+			case BUNDLE:
+				String[] parts = PGFrame.unbundle(message);
+				for(int i = 0; i < parts.length; i++)
+					decode(parts[i]);
+				break;
+			case CHAT:
+				handler.chat(message.substring(at));
+				break;
+			case DRAW_RELEASE:
+				handler.drawRelease();
+				break;
+			case DRAW_CLEAR:
+				handler.drawClear();
+				break;
+			case DRAW_POINT:
+				int xEnd = field(message, at);
+				int yEnd = field(message, xEnd + 1);
+				handler.drawPoint(parseInt(message, at, xEnd), parseInt(message, xEnd + 1, yEnd),
+						parseInt(message, yEnd + 1, message.length()));
+				break;
+			case ROLE_DRAW:
+				handler.roleDraw(message.substring(at));
+				break;
+			case ROLE_GUESS:
+				handler.roleGuess();
+				break;
+			case GAME_START:
+				handler.gameStart();
+				break;
+			case ROUND_END:
+				handler.roundEnd();
+				break;
+			case CORRECT:
+				handler.correctGuess();
+				break;
+			case SCORE:
+				int team1End = field(message, at);
+				handler.score(parseInt(message, at, team1End), parseInt(message, team1End + 1, message.length()));
+				break;
+			case GAME_END:
+				handler.gameEnd(message.substring(at));
+				break;
+			case REBALANCING:
+				handler.rebalancing();
+				break;
+			case PLAYER_LIST:
+				handler.playerList(message.substring(at));
+				break;
+			case PLAYER_JOINED:
+				int joinedEnd = field(message, at);
+				handler.playerJoined(parseInt(message, at, joinedEnd), message.substring(joinedEnd + 1));
+				break;
+			case PLAYER_LEFT:
+				handler.playerLeft(message.substring(at));
+				break;
+			case PLAYER_TEAM:
+				int teamEnd = field(message, at);
+				handler.playerTeamChanged(parseInt(message, at, teamEnd), message.substring(teamEnd + 1));
+				break;
+			case GUESS_LIST:
+				handler.guessList(message.substring(at));
+				break;
+			case GUESS_ADDED:
+				handler.guessAdded(message.substring(at));
+				break;
+			case DEADLINE:
+				int timeEnd = field(message, at);
+				handler.deadline(parseLong(message, at, timeEnd), parseLong(message, timeEnd + 1, message.length()));
+				break;
+			case REMOVED:
+				handler.removed();
+				break;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * finds which header a message has
+	 * 
+	 * @param message the message
+	 * @return the header's index in HEADERS, or -1 if unknown
+	 */
+	private static int kindOf(String message)
+	{
+		if(message.isEmpty() || (message.charAt(0) >= BY_FIRST_CHAR.length))
+			return -1;
+		
+		int[] candidates = BY_FIRST_CHAR[message.charAt(0)];
+		for(int i = 0; i < candidates.length; i++)
+		{
+			String header = HEADERS[candidates[i]];
+			if(EXACT[candidates[i]] ? message.equals(header) : message.startsWith(header))
+				return candidates[i];
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * finds the end of a space separated field
+	 * 
+	 * @param message the message
+	 * @param from where the field starts
+	 * @return index of the space after the field
+	 * @throws IllegalArgumentException if there is no space
+	 */
+	private static int field(String message, int from)
+	{
+		int end = message.indexOf(' ', from);
+		if(end == -1)
+			throw new IllegalArgumentException("Missing field in message");
+		
+		return end;
+	}
+	
+	/**
+	 * reads a decimal int from part of a message
+	 * 
+	 * @param s the message
+	 * @param from index of the first digit (or minus sign)
+	 * @param to index after the last digit
+	 * @return the number
+	 * @throws NumberFormatException if that part isn't an int
+	 */
+	public static int parseInt(CharSequence s, int from, int to)
+	{
+		long value = parseLong(s, from, to);
+		if((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE))
+			throw new NumberFormatException("Number out of range");
+		
+		return (int) value;
+	}
+	
+	/**
+	 * reads a decimal long from part of a message
+	 * 
+	 * @param s the message
+	 * @param from index of the first digit (or minus sign)
+	 * @param to index after the last digit
+	 * @return the number
+	 * @throws NumberFormatException if that part isn't a long
+	 */
+	public static long parseLong(CharSequence s, int from, int to)
+	{
+		boolean negative = (from < to) && (s.charAt(from) == '-');
+		int i = negative ? from + 1 : from;
+		if((i >= to) || (to - i > 18)) // 18 digits can't overflow
+			throw new NumberFormatException("Bad number in message");
+		
+		long value = 0;
+		for(; i < to; i++)
+		{
+			int digit = s.charAt(i) - '0';
+			if((digit < 0) || (digit > 9))
+				throw new NumberFormatException("Bad number in message");
+			value = value * 10 + digit;
+		}
+		
+		return negative ? -value : value;
+	}
+}
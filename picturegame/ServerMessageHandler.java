@@ -0,0 +1,143 @@
+package picturegame;
+
+/**
+ * The ServerMessageHandler interface receives the server's messages once
+ * ServerMessageDecoder has picked them apart, one method per kind of
+ * message.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public interface ServerMessageHandler {
+	
+	/**
+	 * a chat line
+	 * 
+	 * @param message the line
+	 */
+	void chat(String message);
+	
+	/**
+	 * a point of the drawer's stroke
+	 * 
+	 * @param x x coordinate in StrokeModel.UNITS of the canvas width
+	 * @param y y coordinate in StrokeModel.UNITS of the canvas height
+	 * @param rgb color
+	 */
+	void drawPoint(int x, int y, int rgb);
+	
+	/**
+	 * the drawer lifted the mouse
+	 */
+	void drawRelease();
+	
+	/**
+	 * the drawer cleared the canvas
+	 */
+	void drawClear();
+	
+	/**
+	 * this player is now drawing
+	 * 
+	 * @param word the word to draw
+	 */
+	void roleDraw(String word);
+	
+	/**
+	 * this player is now guessing
+	 */
+	void roleGuess();
+	
+	/**
+	 * the game is starting
+	 */
+	void gameStart();
+	
+	/**
+	 * the round is over
+	 */
+	void roundEnd();
+	
+	/**
+	 * this player's team guessed the word
+	 */
+	void correctGuess();
+	
+	/**
+	 * the scores changed
+	 * 
+	 * @param team1 team 1's score
+	 * @param team2 team 2's score
+	 */
+	void score(int team1, int team2);
+	
+	/**
+	 * the game is over
+	 * 
+	 * @param result how it ended
+	 */
+	void gameEnd(String result);
+	
+	/**
+	 * the teams are being rebalanced
+	 */
+	void rebalancing();
+	
+	/**
+	 * the full player list
+	 * 
+	 * @param list the list as the server formats it
+	 */
+	void playerList(String list);
+	
+	/**
+	 * a player joined the lobby
+	 * 
+	 * @param team the player's team
+	 * @param name the player's name
+	 */
+	void playerJoined(int team, String name);
+	
+	/**
+	 * a player left the lobby
+	 * 
+	 * @param name the player's name
+	 */
+	void playerLeft(String name);
+	
+	/**
+	 * a player changed teams
+	 * 
+	 * @param team the player's new team
+	 * @param name the player's name
+	 */
+	void playerTeamChanged(int team, String name);
+	
+	/**
+	 * the full list of this round's guesses
+	 * 
+	 * @param list the list as the server formats it
+	 */
+	void guessList(String list);
+	
+	/**
+	 * someone made a guess
+	 * 
+	 * @param guess the guess as the server formats it
+	 */
+	void guessAdded(String guess);
+	
+	/**
+	 * when the round or wait ends
+	 * 
+	 * @param serverTime the server's clock when the message was sent
+	 * @param deadline the server's clock when the round or wait ends
+	 */
+	void deadline(long serverTime, long deadline);
+	
+	/**
+	 * this player was removed from the lobby
+	 */
+	void removed();
+}
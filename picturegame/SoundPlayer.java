@@ -1,6 +1,12 @@
 /**
  * This class is responsible for playing sound files.
  * 
+ * Each sound is read and decoded once, the first time it is preloaded or
+ * played, and kept as PCM data.  Playing it rewinds and starts one of a
+ * few Clips already opened with that data, so nothing is read from disk
+ * or decoded while a round is ending.  Everything runs on one audio
+ * thread, so callers never wait and the clips need no locking.
+ * 
  * @author Billy Robbins
  * @since 12/15/15
  * @version 1.0
@@ -8,41 +14,100 @@
 
 package picturegame;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
 
-public class SoundPlayer extends Thread {
-
+public class SoundPlayer {
+	
 	// CONSTANTS
 	private static final String THREAD_NAME = "SoundPlayer";
+	private static final int CLIPS_PER_SOUND = 2; // so a sound can overlap itself once
+	private static final int READ_BUFFER_SIZE = 8192;
+	
+	private static final ExecutorService AUDIO = Executors.newSingleThreadExecutor(
+			new ThreadFactory() {
+				public Thread newThread(Runnable r)
+				{
+					Thread thread = new Thread(r, THREAD_NAME);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+	
+	// DATA MEMBERS (only touched on the audio thread)
+	private static final HashMap<String, SoundPlayer> sounds = new HashMap<String, SoundPlayer>();
 	
-	// DATA MEMBERS
 	private String path;
+	private AudioFormat format;
+	private byte[] data; // decoded PCM, null if the sound couldn't be loaded
+	private Clip[] clips; // opened lazily
+	private int nextClip;
 	
 	/**
-	 * Constructor for SoundPlayer taking just the path to the sound
+	 * Constructor for SoundPlayer, reading and decoding a sound file
 	 * 
 	 * @param pathToSound filepath to the sound file
 	 */
 	private SoundPlayer(String pathToSound)
 	{
-		super(THREAD_NAME);
 		path = pathToSound;
+		clips = new Clip[CLIPS_PER_SOUND];
+		nextClip = 0;
+		
+		try
+		{
+			AudioInputStream sound = AudioSystem.getAudioInputStream(
+					getClass().getResource(path));
+			format = sound.getFormat();
+			data = readAll(sound);
+			sound.close();
+		}
+		catch(Exception e)
+		{
+			System.err.println("Could not load sound " + path);
+			System.err.println(e.getMessage());
+		}
 	}
 	
 	/**
-	 * runs the thread, playing the given sound file
+	 * plays the sound on a clip that isn't playing, or restarts the one
+	 * that has been playing longest if all are busy
 	 */
-	public void run()
+	private void play()
 	{
+		if(data == null)
+			return;
+		
 		try
 		{
-			Clip clip = AudioSystem.getClip();
-			AudioInputStream sound = AudioSystem.getAudioInputStream(
-					getClass().getResource(path));
-			clip.open(sound);
+			int chosen = nextClip;
+			for(int i = 0; i < clips.length; i++)
+				if((clips[i] == null) || !clips[i].isRunning())
+				{
+					chosen = i;
+					break;
+				}
+			
+			if(clips[chosen] == null)
+			{
+				clips[chosen] = AudioSystem.getClip();
+				clips[chosen].open(format, data, 0, data.length);
+			}
+			
+			Clip clip = clips[chosen];
+			clip.stop();
+			clip.setFramePosition(0);
 			clip.start();
+			nextClip = (chosen + 1) % clips.length;
 		}
 		catch(Exception e)
 		{
@@ -51,17 +116,121 @@ public class SoundPlayer extends Thread {
 		}
 	}
 	
+	/**
+	 * opens the sound's first clip so the first play doesn't have to
+	 */
+	private void warmUp()
+	{
+		if((data == null) || (clips[0] != null))
+			return;
+		
+		try
+		{
+			clips[0] = AudioSystem.getClip();
+			clips[0].open(format, data, 0, data.length);
+		}
+		catch(Exception e)
+		{
+			clips[0] = null;
+			System.err.println("Could not open sound " + path);
+			System.err.println(e.getMessage());
+		}
+	}
+	
+	/**
+	 * releases the sound's clips
+	 */
+	private void close()
+	{
+		for(int i = 0; i < clips.length; i++)
+			if(clips[i] != null)
+			{
+				clips[i].close();
+				clips[i] = null;
+			}
+	}
+	
+	/**
+	 * Loads sounds in the background so they are ready to play
+	 * 
+	 * @param paths filepaths to the sound files
+	 */
+	public static void preload(final String... paths)
+	{
+		AUDIO.execute(new Runnable() {
+			public void run()
+			{
+				for(int i = 0; i < paths.length; i++)
+					load(paths[i]).warmUp();
+			}
+		});
+	}
+	
 	/**
 	 * Plays a given sound
 	 * 
 	 * @param path filepath to desired sound file
 	 */
-	public static void playSound(String path)
+	public static void playSound(final String path)
+	{
+		AUDIO.execute(new Runnable() {
+			public void run()
+			{
+				load(path).play();
+			}
+		});
+	}
+	
+	/**
+	 * Releases every sound's audio lines (sounds are reopened if played
+	 * again)
+	 */
+	public static void closeAll()
 	{
-		SoundPlayer player = new SoundPlayer(path);
-		player.start();
+		AUDIO.execute(new Runnable() {
+			public void run()
+			{
+				for(SoundPlayer sound : sounds.values())
+					sound.close();
+			}
+		});
 	}
 	
+	/**
+	 * gives a sound, reading and decoding it the first time (audio thread
+	 * only)
+	 * 
+	 * @param path filepath to the sound file
+	 * @return the sound
+	 */
+	private static SoundPlayer load(String path)
+	{
+		SoundPlayer sound = sounds.get(path);
+		if(sound == null)
+		{
+			sound = new SoundPlayer(path);
+			sounds.put(path, sound);
+		}
+		
+		return sound;
+	}
 	
+	/**
+	 * reads a stream to its end
+	 * 
+	 * @param in the stream
+	 * @return everything read
+	 * @throws IOException if the stream can't be read
+	 */
+	private static byte[] readAll(AudioInputStream in) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[READ_BUFFER_SIZE];
+		int read;
+		while((read = in.read(buffer)) != -1)
+			out.write(buffer, 0, read);
+		
+		return out.toByteArray();
+	}
 	
 }
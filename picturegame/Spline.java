@@ -0,0 +1,84 @@
+package picturegame;
+
+/**
+ * The Spline class turns the points of a stroke into a smooth curve.  A
+ * Catmull-Rom spline passes through every point, and the piece between
+ * two points is shaped by the points either side of them, so drawing
+ * only needs the next point to arrive, never the whole stroke.
+ * 
+ * Pieces are drawn as short straight lines (one per STEP_PIXELS of
+ * distance between the points, up to MAX_STEPS), which is as smooth as a
+ * one pixel stroke can get.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class Spline {
+	
+	// CONSTANTS
+	public static final int MAX_STEPS = 16;
+	private static final float STEP_PIXELS = 3;
+	
+	/**
+	 * no instances, everything is static
+	 */
+	private Spline()
+	{
+	}
+	
+	/**
+	 * gives a point on the piece of curve between p1 and p2
+	 * 
+	 * @param p0 coordinate of the point before p1
+	 * @param p1 coordinate the piece starts at
+	 * @param p2 coordinate the piece ends at
+	 * @param p3 coordinate of the point after p2
+	 * @param t how far along the piece (0 to 1)
+	 * @return the coordinate at t
+	 */
+	public static float at(float p0, float p1, float p2, float p3, float t)
+	{
+		float t2 = t * t;
+		return 0.5f * ((2 * p1) + (p2 - p0) * t + (2 * p0 - 5 * p1 + 4 * p2 - p3) * t2
+				+ (3 * p1 - p0 - 3 * p2 + p3) * t2 * t);
+	}
+	
+	/**
+	 * breaks the piece of curve between (x1, y1) and (x2, y2) into
+	 * straight lines
+	 * 
+	 * @param x0 x coordinate of the point before the piece
+	 * @param y0 y coordinate of the point before the piece
+	 * @param x1 x coordinate the piece starts at
+	 * @param y1 y coordinate the piece starts at
+	 * @param x2 x coordinate the piece ends at
+	 * @param y2 y coordinate the piece ends at
+	 * @param x3 x coordinate of the point after the piece
+	 * @param y3 y coordinate of the point after the piece
+	 * @param xs filled with the x coordinates of the lines' ends (at least
+	 * MAX_STEPS + 1 long)
+	 * @param ys filled with the y coordinates of the lines' ends
+	 * @return the number of coordinates filled in, from (x1, y1) to
+	 * (x2, y2)
+	 */
+	public static int flatten(float x0, float y0, float x1, float y1, float x2, float y2,
+			float x3, float y3, float[] xs, float[] ys)
+	{
+		float length = (float) Math.hypot(x2 - x1, y2 - y1);
+		int steps = Math.max(1, Math.min(MAX_STEPS, (int) Math.ceil(length / STEP_PIXELS)));
+		
+		xs[0] = x1;
+		ys[0] = y1;
+		for(int i = 1; i < steps; i++)
+		{
+			float t = (float) i / steps;
+			xs[i] = at(x0, x1, x2, x3, t);
+			ys[i] = at(y0, y1, y2, y3, t);
+		}
+		xs[steps] = x2;
+		ys[steps] = y2;
+		
+		return steps + 1;
+	}
+}
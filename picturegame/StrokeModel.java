@@ -0,0 +1,287 @@
+package picturegame;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * The StrokeModel class remembers everything drawn in a DrawZone as
+ * strokes rather than pixels, so the drawing can be re-rendered at any
+ * size.  Points are kept in parallel primitive arrays as coordinates
+ * normalized to the canvas size (0 to 1) plus a color, and a stroke is a
+ * run of points ended by a mouse release.  Memory grows with the number
+ * of points drawn, not with the size of the canvas.
+ * 
+ * Points sent between clients are in UNITS of the canvas rather than
+ * pixels (see toUnits), since every window's canvas can be a different
+ * size.
+ * 
+ * Strokes are drawn as smooth curves through their points (see Spline).
+ * The piece of curve ending at a point is shaped by the point after it,
+ * so while a stroke is being drawn each piece is drawn once the next
+ * point arrives, and the last one when the stroke ends.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class StrokeModel {
+	
+	// CONSTANTS
+	public static final int UNITS = 10000; // canvas width or height, for points sent between clients
+	private static final int INITIAL_POINTS = 1024;
+	private static final int INITIAL_STROKES = 64;
+	
+	// DATA MEMBERS
+	private float[] xs;
+	private float[] ys;
+	private int[] colors;
+	private int pointCount;
+	private int[] strokeStarts; // index of each stroke's first point
+	private int strokeCount;
+	private boolean strokeOpen; // whether the last stroke is still being drawn
+	private float[] curveX; // scratch for Spline.flatten
+	private float[] curveY;
+	private int[] lineX; // curveX/curveY rounded to pixels
+	private int[] lineY;
+	
+	/**
+	 * constructor for an empty StrokeModel
+	 */
+	public StrokeModel()
+	{
+		xs = new float[INITIAL_POINTS];
+		ys = new float[INITIAL_POINTS];
+		colors = new int[INITIAL_POINTS];
+		strokeStarts = new int[INITIAL_STROKES];
+		curveX = new float[Spline.MAX_STEPS + 1];
+		curveY = new float[Spline.MAX_STEPS + 1];
+		lineX = new int[Spline.MAX_STEPS + 1];
+		lineY = new int[Spline.MAX_STEPS + 1];
+		clear();
+	}
+	
+	/**
+	 * adds a point to the current stroke, starting a new stroke if the
+	 * last one was ended
+	 * 
+	 * @param x x coordinate as a fraction of the canvas width
+	 * @param y y coordinate as a fraction of the canvas height
+	 * @param rgb color of the segment leading to this point
+	 */
+	public void addPoint(float x, float y, int rgb)
+	{
+		if(!strokeOpen)
+		{
+			if(strokeCount == strokeStarts.length)
+				strokeStarts = Arrays.copyOf(strokeStarts, strokeCount * 2);
+			strokeStarts[strokeCount++] = pointCount;
+			strokeOpen = true;
+		}
+		
+		if(pointCount == xs.length)
+		{
+			xs = Arrays.copyOf(xs, pointCount * 2);
+			ys = Arrays.copyOf(ys, pointCount * 2);
+			colors = Arrays.copyOf(colors, pointCount * 2);
+		}
+		
+		xs[pointCount] = x;
+		ys[pointCount] = y;
+		colors[pointCount] = rgb;
+		pointCount++;
+	}
+	
+	/**
+	 * ends the current stroke (the mouse was released)
+	 */
+	public void endStroke()
+	{
+		strokeOpen = false;
+	}
+	
+	/**
+	 * removes the most recent stroke
+	 * 
+	 * @return <b>true</b> if a stroke was removed, <b>false</b> if there
+	 * were none
+	 */
+	public boolean removeLastStroke()
+	{
+		if(strokeCount == 0)
+			return false;
+		
+		pointCount = strokeStarts[--strokeCount];
+		strokeOpen = false;
+		return true;
+	}
+	
+	/**
+	 * removes every stroke
+	 */
+	public void clear()
+	{
+		pointCount = 0;
+		strokeCount = 0;
+		strokeOpen = false;
+	}
+	
+	/**
+	 * gives the number of points kept
+	 * 
+	 * @return number of points
+	 */
+	public int getPointCount()
+	{
+		return pointCount;
+	}
+	
+	/**
+	 * gives the number of strokes kept
+	 * 
+	 * @return number of strokes
+	 */
+	public int getStrokeCount()
+	{
+		return strokeCount;
+	}
+	
+	/**
+	 * draws every stroke scaled to a canvas size
+	 * 
+	 * @param g graphics to draw with (its color is changed)
+	 * @param width canvas width in pixels
+	 * @param height canvas height in pixels
+	 */
+	public void render(Graphics2D g, int width, int height)
+	{
+		for(int s = 0; s < strokeCount; s++)
+		{
+			int start = strokeStarts[s];
+			int end = (s + 1 < strokeCount) ? strokeStarts[s + 1] : pointCount;
+			
+			renderPiece(g, start, start, end, width, height, null);
+			for(int i = start + 1; i < end; i++)
+				renderPiece(g, i, start, end, width, height, null);
+		}
+	}
+	
+	/**
+	 * draws whatever the last addPoint or endStroke finished: the dot
+	 * starting a stroke, or the piece of curve that now has its next point
+	 * (or is the last piece of an ended stroke)
+	 * 
+	 * @param g graphics to draw with (its color is changed)
+	 * @param width canvas width in pixels
+	 * @param height canvas height in pixels
+	 * @param area set to the bounds of what was drawn
+	 * @return <b>true</b> if anything was drawn, <b>false</b> otherwise
+	 */
+	public boolean renderLatest(Graphics2D g, int width, int height, Rectangle area)
+	{
+		if(strokeCount == 0)
+			return false;
+		
+		int start = strokeStarts[strokeCount - 1];
+		int piece = strokeOpen ? pointCount - 2 : pointCount - 1;
+		if(strokeOpen && (pointCount - start == 1))
+			piece = start;
+		else if(piece <= start)
+			return false;
+		
+		renderPiece(g, piece, start, pointCount, width, height, area);
+		return true;
+	}
+	
+	/**
+	 * draws the piece of a stroke's curve ending at a point (just a dot
+	 * for the stroke's first point)
+	 * 
+	 * @param g graphics to draw with
+	 * @param i index of the point the piece ends at
+	 * @param start index of the stroke's first point
+	 * @param end index after the stroke's last point
+	 * @param width canvas width in pixels
+	 * @param height canvas height in pixels
+	 * @param area set to the bounds of what was drawn, or <b>null</b>
+	 */
+	private void renderPiece(Graphics2D g, int i, int start, int end, int width, int height,
+			Rectangle area)
+	{
+		int before = Math.max(i - 2, start);
+		int from = Math.max(i - 1, start);
+		int after = Math.min(i + 1, end - 1);
+		int count = Spline.flatten(xs[before] * width, ys[before] * height,
+				xs[from] * width, ys[from] * height, xs[i] * width, ys[i] * height,
+				xs[after] * width, ys[after] * height, curveX, curveY);
+		
+		for(int c = 0; c < count; c++)
+		{
+			lineX[c] = Math.round(curveX[c]);
+			lineY[c] = Math.round(curveY[c]);
+		}
+		
+		if(g.getColor().getRGB() != colors[i])
+			g.setColor(new Color(colors[i]));
+		if(i == start)
+			g.drawLine(lineX[0], lineY[0], lineX[0], lineY[0]);
+		else
+			g.drawPolyline(lineX, lineY, count);
+		
+		if(area != null)
+		{
+			area.setBounds(lineX[0], lineY[0], 0, 0);
+			for(int c = 1; c < count; c++)
+				area.add(lineX[c], lineY[c]);
+		}
+	}
+	
+	/**
+	 * turns a normalized coordinate into a pixel
+	 * 
+	 * @param fraction the coordinate as a fraction of the canvas size
+	 * @param size the canvas size in pixels
+	 * @return the pixel coordinate
+	 */
+	public static int toPixel(float fraction, int size)
+	{
+		return Math.round(fraction * size);
+	}
+	
+	/**
+	 * turns a pixel into a normalized coordinate
+	 * 
+	 * @param pixel the pixel coordinate
+	 * @param size the canvas size in pixels
+	 * @return the coordinate as a fraction of the canvas size
+	 */
+	public static float toFraction(int pixel, int size)
+	{
+		return (float) pixel / Math.max(size, 1);
+	}
+	
+	/**
+	 * turns a pixel into a coordinate to send to other clients
+	 * 
+	 * @param pixel the pixel coordinate
+	 * @param size the canvas size in pixels
+	 * @return the coordinate in UNITS of the canvas size
+	 */
+	public static int toUnits(int pixel, int size)
+	{
+		return Math.round((float) pixel * UNITS / Math.max(size, 1));
+	}
+	
+	/**
+	 * turns a coordinate received from another client into a normalized
+	 * coordinate
+	 * 
+	 * @param units the coordinate in UNITS of the canvas size
+	 * @return the coordinate as a fraction of the canvas size
+	 */
+	public static float unitsToFraction(int units)
+	{
+		return (float) units / UNITS;
+	}
+}
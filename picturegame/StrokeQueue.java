@@ -0,0 +1,111 @@
+package picturegame;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The StrokeQueue class passes drawing events from the network thread to
+ * the event dispatch thread.  It is a lock-free ring of ints for exactly
+ * one producer and one consumer: each side only moves its own counter,
+ * and the other side reads it, so no locks or per-event objects are
+ * needed.  If the ring fills the producer waits for the consumer rather
+ * than dropping strokes, unless the queue has been closed (there is no
+ * consumer any more).
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class StrokeQueue {
+	
+	// CONSTANTS
+	public static final int POINT = 0;
+	public static final int RELEASE = 1;
+	public static final int RESET = 2;
+	private static final int FIELDS = 4; // kind, x, y, rgb
+	private static final int CAPACITY = 16384; // events, must be a power of 2
+	
+	// DATA MEMBERS
+	private final int[] ring;
+	private final AtomicLong head; // next event to take, only moved by the consumer
+	private final AtomicLong tail; // next free slot, only moved by the producer
+	private volatile boolean closed;
+	
+	/**
+	 * constructor for StrokeQueue
+	 */
+	public StrokeQueue()
+	{
+		ring = new int[CAPACITY * FIELDS];
+		head = new AtomicLong();
+		tail = new AtomicLong();
+	}
+	
+	/**
+	 * adds an event (producer only)
+	 * 
+	 * @param kind POINT, RELEASE or RESET
+	 * @param x x coordinate (points only)
+	 * @param y y coordinate (points only)
+	 * @param rgb color (points only)
+	 * @return <b>true</b> if added, <b>false</b> if the queue is closed
+	 */
+	public boolean add(int kind, int x, int y, int rgb)
+	{
+		long slot = tail.get();
+		while(slot - head.get() >= CAPACITY)
+		{
+			if(closed)
+				return false;
+			Thread.yield(); // full, wait for the next frame to drain it
+		}
+		if(closed)
+			return false;
+		
+		int at = (int) (slot & (CAPACITY - 1)) * FIELDS;
+		ring[at] = kind;
+		ring[at + 1] = x;
+		ring[at + 2] = y;
+		ring[at + 3] = rgb;
+		tail.lazySet(slot + 1); // publishes the fields written above
+		return true;
+	}
+	
+	/**
+	 * stops taking events, releasing a producer waiting for room (once
+	 * nothing will drain the queue again)
+	 */
+	public void close()
+	{
+		closed = true;
+	}
+	
+	/**
+	 * says whether there is nothing to take (consumer only)
+	 * 
+	 * @return <b>true</b> if empty, <b>false</b> otherwise
+	 */
+	public boolean isEmpty()
+	{
+		return head.get() == tail.get();
+	}
+	
+	/**
+	 * takes every queued event, handing each to a DrawZone (consumer only)
+	 * 
+	 * @param zone the zone to draw the events in
+	 * @return the number of events taken
+	 */
+	public int drainTo(DrawZone zone)
+	{
+		long first = head.get();
+		long end = tail.get();
+		for(long slot = first; slot < end; slot++)
+		{
+			int at = (int) (slot & (CAPACITY - 1)) * FIELDS;
+			zone.apply(ring[at], ring[at + 1], ring[at + 2], ring[at + 3]);
+		}
+		head.lazySet(end);
+		
+		return (int) (end - first);
+	}
+}
@@ -0,0 +1,268 @@
+package picturegame;
+
+/**
+ * The StrokeSimplifier class picks which of the drawer's points are sent
+ * to other players.  A point is held back while the curve the receivers
+ * draw (see Spline) from the points already sent to the newest point
+ * still passes within the tolerance of every point held back; once it
+ * doesn't, the last point held is sent and the process starts again from
+ * there.  Straight and gently curving strokes need only a few points.
+ * 
+ * Receivers shape each piece of curve using the point after it, which
+ * isn't known yet when choosing what to send, so the check uses the
+ * piece's own end instead; the tolerance is a close guide rather than a
+ * guarantee.  At most MAX_HELD points are held back in a row, so a slow
+ * drag keeps reaching the other players.  A tolerance of 0 sends every
+ * point.
+ * 
+ * @author Billy Robbins
+ * @version 1.0
+ * @since 10/19/2026
+ */
+public class StrokeSimplifier {
+	
+	// CONSTANTS
+	public static final float DEFAULT_TOLERANCE = Float.parseFloat(
+			System.getProperty("picturegame.strokeTolerance", "1.0")); // pixels
+	private static final int MAX_HELD = 32;
+	
+	// DATA MEMBERS
+	private float tolerance;
+	private int[] heldX; // points since the last one sent, newest last
+	private int[] heldY;
+	private int[] heldColor;
+	private int held;
+	private boolean started; // whether the stroke's first point was sent
+	private int sentX; // last point sent
+	private int sentY;
+	private int beforeX; // point sent before that (sentX if none)
+	private int beforeY;
+	private int outX;
+	private int outY;
+	private int outColor;
+	private float[] curveX; // scratch for Spline.flatten
+	private float[] curveY;
+	
+	/**
+	 * constructor for StrokeSimplifier
+	 * 
+	 * @param t tolerance in pixels
+	 */
+	public StrokeSimplifier(float t)
+	{
+		tolerance = t;
+		heldX = new int[MAX_HELD];
+		heldY = new int[MAX_HELD];
+		heldColor = new int[MAX_HELD];
+		curveX = new float[Spline.MAX_STEPS + 1];
+		curveY = new float[Spline.MAX_STEPS + 1];
+		started = false;
+		held = 0;
+	}
+	
+	/**
+	 * sets how far the drawn curve may stray from the drawer's points
+	 * 
+	 * @param t tolerance in pixels (0 sends every point)
+	 */
+	public void setTolerance(float t)
+	{
+		tolerance = t;
+	}
+	
+	/**
+	 * gives how far the drawn curve may stray from the drawer's points
+	 * 
+	 * @return tolerance in pixels
+	 */
+	public float getTolerance()
+	{
+		return tolerance;
+	}
+	
+	/**
+	 * takes the drawer's next point
+	 * 
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param rgb color
+	 * @return <b>true</b> if a point should be sent now (see getX, getY
+	 * and getColor), <b>false</b> otherwise
+	 */
+	public boolean add(int x, int y, int rgb)
+	{
+		if(!started)
+		{
+			started = true;
+			beforeX = x;
+			beforeY = y;
+			sentX = x;
+			sentY = y;
+			return send(x, y, rgb);
+		}
+		else if(tolerance <= 0)
+		{
+			advance(x, y);
+			return send(x, y, rgb);
+		}
+		
+		int last = held - 1;
+		if((held > 0) ? (x == heldX[last]) && (y == heldY[last]) : (x == sentX) && (y == sentY))
+			return false; // the mouse didn't move far enough to change pixel
+		
+		if((held == 0) || ((held < MAX_HELD) && (rgb == heldColor[last]) && fits(x, y)))
+		{
+			hold(x, y, rgb);
+			return false;
+		}
+		
+		advance(heldX[last], heldY[last]);
+		send(heldX[last], heldY[last], heldColor[last]);
+		held = 0;
+		hold(x, y, rgb);
+		return true;
+	}
+	
+	/**
+	 * ends the stroke (the mouse was released)
+	 * 
+	 * @return <b>true</b> if the stroke's last point should be sent now
+	 * (see getX, getY and getColor), <b>false</b> otherwise
+	 */
+	public boolean end()
+	{
+		boolean flush = held > 0;
+		if(flush)
+			send(heldX[held - 1], heldY[held - 1], heldColor[held - 1]);
+		
+		started = false;
+		held = 0;
+		return flush;
+	}
+	
+	/**
+	 * gives the x coordinate of the point to send
+	 * 
+	 * @return x coordinate
+	 */
+	public int getX()
+	{
+		return outX;
+	}
+	
+	/**
+	 * gives the y coordinate of the point to send
+	 * 
+	 * @return y coordinate
+	 */
+	public int getY()
+	{
+		return outY;
+	}
+	
+	/**
+	 * gives the color of the point to send
+	 * 
+	 * @return color
+	 */
+	public int getColor()
+	{
+		return outColor;
+	}
+	
+	/**
+	 * makes a point the last one sent, for shaping the next piece of curve
+	 * 
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 */
+	private void advance(int x, int y)
+	{
+		beforeX = sentX;
+		beforeY = sentY;
+		sentX = x;
+		sentY = y;
+	}
+	
+	/**
+	 * sets the point to send
+	 * 
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param rgb color
+	 * @return <b>true</b>
+	 */
+	private boolean send(int x, int y, int rgb)
+	{
+		outX = x;
+		outY = y;
+		outColor = rgb;
+		return true;
+	}
+	
+	/**
+	 * holds a point back
+	 * 
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param rgb color
+	 */
+	private void hold(int x, int y, int rgb)
+	{
+		heldX[held] = x;
+		heldY[held] = y;
+		heldColor[held] = rgb;
+		held++;
+	}
+	
+	/**
+	 * says whether the curve from the last point sent to a new point
+	 * passes within the tolerance of every point held back
+	 * 
+	 * @param x x coordinate of the new point
+	 * @param y y coordinate of the new point
+	 * @return <b>true</b> if the held points can be dropped, <b>false</b>
+	 * otherwise
+	 */
+	private boolean fits(int x, int y)
+	{
+		int count = Spline.flatten(beforeX, beforeY, sentX, sentY, x, y, x, y, curveX, curveY);
+		float limit = tolerance * tolerance;
+		for(int h = 0; h < held; h++)
+		{
+			float nearest = Float.MAX_VALUE;
+			for(int i = 1; i < count; i++)
+				nearest = Math.min(nearest, distanceSquared(heldX[h], heldY[h],
+						curveX[i - 1], curveY[i - 1], curveX[i], curveY[i]));
+			
+			if(nearest > limit)
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * gives the squared distance from a point to a line segment
+	 * 
+	 * @param px x coordinate of the point
+	 * @param py y coordinate of the point
+	 * @param x1 x coordinate of the segment's start
+	 * @param y1 y coordinate of the segment's start
+	 * @param x2 x coordinate of the segment's end
+	 * @param y2 y coordinate of the segment's end
+	 * @return the squared distance
+	 */
+	private static float distanceSquared(float px, float py, float x1, float y1, float x2, float y2)
+	{
+		float dx = x2 - x1;
+		float dy = y2 - y1;
+		float lengthSquared = dx * dx + dy * dy;
+		float t = (lengthSquared == 0) ? 0
+				: Math.max(0, Math.min(1, ((px - x1) * dx + (py - y1) * dy) / lengthSquared));
+		
+		float ex = x1 + t * dx - px;
+		float ey = y1 + t * dy - py;
+		return ex * ex + ey * ey;
+	}
+}
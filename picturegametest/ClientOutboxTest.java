@@ -0,0 +1,144 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import picturegame.ClientOutbox;
+import picturegame.GameplayWindowEngine;
+
+public class ClientOutboxTest {
+	
+	// Constants
+	private static final String RELEASE = GameplayWindowEngine.HEADER_DRAWING + GameplayWindowEngine.DRAWING_RELEASE;
+	private static final String CHAT = GameplayWindowEngine.HEADER_CHAT + "hi";
+	private static final long WAIT_MILLISECONDS = 2000;
+	
+	// Data Members
+	private ByteArrayOutputStream sent;
+	private ClientOutbox outbox;
+	private boolean failed;
+	
+	@Before
+	public void initialize()
+	{
+		sent = new ByteArrayOutputStream();
+		outbox = new ClientOutbox(sent, null);
+		failed = false;
+	}
+	
+	@Test
+	public void testCoalescesPointsWhenBackedUp() throws IOException
+	{
+		// Not started, so everything backs up
+		for(int i = 1; i <= 100; i++)
+			outbox.send(point(i));
+		outbox.send(RELEASE);
+		outbox.send(point(101));
+		outbox.send(point(102));
+		
+		assertEquals(outbox.getQueued(), 10);
+		assertEquals(outbox.getCoalesced(), 93);
+		
+		outbox.start();
+		assertTrue(outbox.finish(WAIT_MILLISECONDS));
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(sent.toByteArray()));
+		for(int i = 1; i <= 7; i++)
+			assertEquals(input.readUTF(), point(i));
+		assertEquals(input.readUTF(), point(100)); // stroke still ends at the release
+		assertEquals(input.readUTF(), RELEASE);
+		assertEquals(input.readUTF(), point(102));
+		assertEquals(input.available(), 0);
+	}
+	
+	@Test
+	public void testPointsBounded()
+	{
+		// Chat between points stops them coalescing
+		for(int i = 0; i < 300; i++)
+		{
+			outbox.send(point(i));
+			outbox.send(CHAT);
+		}
+		
+		assertEquals(outbox.getDropped(), 44);
+		assertEquals(outbox.getQueued(), 556);
+	}
+	
+	@Test
+	public void testQueueBounded()
+	{
+		final boolean[] closed = {false};
+		outbox = new ClientOutbox(new ByteArrayOutputStream() {
+			public void close()
+			{
+				closed[0] = true;
+			}
+		}, new Runnable() {
+			public void run()
+			{
+				failed = true;
+			}
+		});
+		
+		for(int i = 0; i < ClientOutbox.MAX_QUEUED; i++)
+			outbox.send(CHAT);
+		assertEquals(outbox.getQueued(), ClientOutbox.MAX_QUEUED);
+		assertFalse(closed[0]);
+		
+		outbox.send(CHAT);
+		assertTrue(closed[0]);
+		assertTrue(failed);
+		assertEquals(outbox.getQueued(), 0);
+		
+		outbox.send(CHAT); // ignored once closed
+		assertEquals(outbox.getQueued(), 0);
+	}
+	
+	@Test
+	public void testFinish() throws IOException
+	{
+		outbox.start();
+		outbox.send(CHAT);
+		assertTrue(outbox.finish(WAIT_MILLISECONDS));
+		outbox.send(RELEASE); // ignored once finished
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(sent.toByteArray()));
+		assertEquals(input.readUTF(), CHAT);
+		assertEquals(input.available(), 0);
+	}
+	
+	@Test
+	public void testFailure()
+	{
+		outbox = new ClientOutbox(new OutputStream() {
+			public void write(int b) throws IOException
+			{
+				throw new IOException("closed");
+			}
+		}, new Runnable() {
+			public void run()
+			{
+				failed = true;
+			}
+		});
+		
+		outbox.start();
+		outbox.send(CHAT);
+		assertFalse(outbox.finish(WAIT_MILLISECONDS));
+		assertTrue(failed);
+	}
+	
+	private static String point(int i)
+	{
+		return GameplayWindowEngine.HEADER_DRAWING + i + " " + i + " -16777216";
+	}
+}
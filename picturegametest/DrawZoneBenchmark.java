@@ -0,0 +1,132 @@
+package picturegametest;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import picturegame.DrawZone;
+import picturegame.StrokeModel;
+
+/**
+ * Headless rendering benchmark for DrawZone, run as a plain Java program
+ * with -Djava.awt.headless=true.  Feeds a long scribble through
+ * drawReceivedAt (the network drawing path) and, for comparison, through
+ * the old approach of creating a Graphics per point.  Prints sustained
+ * points per second for each, then the cost of repainting the whole
+ * canvas against repainting just the area of a short stroke, and the
+ * cost of a reset (as at the start of a round).
+ */
+public class DrawZoneBenchmark {
+
+	// Constants
+	private static final int WIDTH = 800;
+	private static final int HEIGHT = 600;
+	private static final int STROKE_LENGTH = 200; // points per stroke
+	private static final int WARMUP_POINTS = 200000;
+	private static final int MEASURED_POINTS = 2000000;
+	private static final Color[] COLORS = {Color.BLACK, Color.BLUE, Color.RED};
+	private static final int PAINTS = 5000;
+	private static final int STROKE_AREA = 24; // pixels across a few points of a fast stroke
+	private static final int RESETS = 2000;
+	
+	public static void main(String[] args)
+	{
+		DrawZone zone = new DrawZone(null);
+		zone.setSize(WIDTH, HEIGHT);
+		zone.reset();
+		
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		
+		runDrawZone(zone, WARMUP_POINTS);
+		runPerPointGraphics(image, WARMUP_POINTS);
+		
+		long start = System.nanoTime();
+		runPerPointGraphics(image, MEASURED_POINTS);
+		double before = MEASURED_POINTS / ((System.nanoTime() - start) / 1e9);
+		
+		start = System.nanoTime();
+		runDrawZone(zone, MEASURED_POINTS);
+		double after = MEASURED_POINTS / ((System.nanoTime() - start) / 1e9);
+		
+		System.out.println("Points drawn: " + MEASURED_POINTS);
+		System.out.println("createGraphics per point: " + (long) before + " points/s");
+		System.out.println("DrawZone.drawReceivedAt: " + (long) after + " points/s");
+		
+		BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		paint(zone, screen, 0, 0, WIDTH, HEIGHT);
+		paint(zone, screen, WIDTH / 2, HEIGHT / 2, STROKE_AREA, STROKE_AREA);
+		long full = paint(zone, screen, 0, 0, WIDTH, HEIGHT);
+		long stroke = paint(zone, screen, WIDTH / 2, HEIGHT / 2, STROKE_AREA, STROKE_AREA);
+		System.out.println("Paint whole canvas: " + (full / PAINTS) + " ns");
+		System.out.println("Paint " + STROKE_AREA + "x" + STROKE_AREA + " dirty area: " + (stroke / PAINTS) + " ns");
+		
+		reset(zone);
+		long reset = reset(zone);
+		System.out.println("Reset: " + (reset / RESETS) + " ns");
+	}
+	
+	private static long paint(DrawZone zone, BufferedImage screen, int x, int y, int width, int height)
+	{
+		long start = System.nanoTime();
+		for(int i = 0; i < PAINTS; i++)
+		{
+			Graphics g = screen.createGraphics();
+			g.setClip(x, y, width, height);
+			zone.paint(g);
+			g.dispose();
+		}
+		
+		return System.nanoTime() - start;
+	}
+	
+	private static long reset(DrawZone zone)
+	{
+		long start = System.nanoTime();
+		for(int i = 0; i < RESETS; i++)
+			zone.reset();
+		
+		return System.nanoTime() - start;
+	}
+	
+	private static void runDrawZone(DrawZone zone, int points)
+	{
+		for(int i = 0; i < points; i++)
+		{
+			zone.drawReceivedAt(StrokeModel.toUnits(x(i), WIDTH), StrokeModel.toUnits(y(i), HEIGHT), COLORS[(i / STROKE_LENGTH) % COLORS.length]);
+			if(i % STROKE_LENGTH == STROKE_LENGTH - 1)
+				zone.networkMouseRelease();
+		}
+	}
+	
+	private static void runPerPointGraphics(BufferedImage image, int points)
+	{
+		int lastX = -1;
+		int lastY = -1;
+		for(int i = 0; i < points; i++)
+		{
+			if(lastX == -1)
+			{
+				lastX = x(i);
+				lastY = y(i);
+			}
+			
+			Graphics g = image.createGraphics();
+			g.setColor(COLORS[(i / STROKE_LENGTH) % COLORS.length]);
+			g.drawLine(lastX, lastY, x(i), y(i));
+			lastX = x(i);
+			lastY = y(i);
+			if(i % STROKE_LENGTH == STROKE_LENGTH - 1)
+				lastX = -1;
+		}
+	}
+	
+	private static int x(int i)
+	{
+		return (int) (WIDTH / 2 + (WIDTH / 3) * Math.sin(i * 0.01) + (i % 7));
+	}
+	
+	private static int y(int i)
+	{
+		return (int) (HEIGHT / 2 + (HEIGHT / 3) * Math.cos(i * 0.013) + (i % 5));
+	}
+}
@@ -0,0 +1,168 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pgbot.PGBot;
+import pgserver.PGServer;
+import pgserver.PGServerThread;
+import picturegame.GameClient;
+import picturegame.GameplayWindowEngine;
+
+public class GameClientTest {
+	
+	// Constants
+	private static final long WAIT_MILLISECONDS = 5000;
+	private static final int TIMEOUT_MILLISECONDS = 10000;
+	
+	// Data Members
+	private ServerSocket server;
+	private Socket connection;
+	private DataInputStream fromClient;
+	private DataOutputStream toClient;
+	
+	@Before
+	public void initialize() throws IOException
+	{
+		server = new ServerSocket(0);
+		server.setSoTimeout(TIMEOUT_MILLISECONDS);
+	}
+	
+	@After
+	public void close() throws IOException
+	{
+		if(connection != null)
+			connection.close();
+		server.close();
+	}
+	
+	@Test
+	public void testHandshake() throws IOException
+	{
+		GameClient client = new GameClient("localhost", server.getLocalPort());
+		accept();
+		
+		reply(PGServerThread.MESSAGE_USERNAME_FAILURE, PGServerThread.MESSAGE_USERNAME_SUCCESS,
+				PGServerThread.MESSAGE_CATEGORY_LIST + "animals,disney",
+				PGServerThread.MESSAGE_JOIN_FAILURE, PGServerThread.MESSAGE_JOIN_SUCCESS);
+		assertFalse(client.claimUsername("taken"));
+		assertTrue(client.claimUsername("free"));
+		assertArrayEquals(client.listCategories(), new String[] {"animals", "disney"});
+		assertFalse(client.joinPrivateLobby("ABCD"));
+		assertTrue(client.joinPublicLobby());
+		
+		assertEquals(fromClient.readUTF(), "taken");
+		assertEquals(fromClient.readUTF(), "free");
+		assertEquals(fromClient.readUTF(), PGServerThread.MESSAGE_LIST_CATEGORIES);
+		assertEquals(fromClient.readUTF(), PGServerThread.MESSAGE_JOIN_PRIVATE + "ABCD");
+		assertEquals(fromClient.readUTF(), PGServerThread.MESSAGE_JOIN_PUBLIC);
+		client.close(WAIT_MILLISECONDS);
+	}
+	
+	@Test
+	public void testNoCategories() throws IOException
+	{
+		GameClient client = new GameClient("localhost", server.getLocalPort());
+		accept();
+		
+		reply(PGServerThread.MESSAGE_CATEGORY_LIST);
+		assertEquals(client.listCategories().length, 0);
+		client.close(WAIT_MILLISECONDS);
+	}
+	
+	@Test
+	public void testGameplayMessagesInOrder() throws IOException
+	{
+		GameClient client = new GameClient("localhost", server.getLocalPort());
+		accept();
+		
+		client.requestInfo();
+		client.sendChat("hello");
+		client.sendPoint(10, 20, -16777216);
+		client.sendRelease();
+		client.sendGuess("cat");
+		client.sendClear();
+		client.leaveLobby();
+		reply(PGServer.HEADER_REMOVED);
+		
+		assertEquals(fromClient.readUTF(), GameplayWindowEngine.HEADER_INFO);
+		assertEquals(fromClient.readUTF(), GameplayWindowEngine.HEADER_CHAT + "hello");
+		assertEquals(fromClient.readUTF(), GameplayWindowEngine.HEADER_DRAWING + "10 20 -16777216");
+		assertEquals(fromClient.readUTF(), GameplayWindowEngine.HEADER_DRAWING + GameplayWindowEngine.DRAWING_RELEASE);
+		assertEquals(fromClient.readUTF(), GameplayWindowEngine.HEADER_GUESS + "cat");
+		assertEquals(fromClient.readUTF(), GameplayWindowEngine.HEADER_CLEAR);
+		assertEquals(fromClient.readUTF(), PGServerThread.MESSAGE_LEAVE_LOBBY);
+		assertEquals(client.readMessage(), PGServer.HEADER_REMOVED);
+		client.close(WAIT_MILLISECONDS);
+	}
+	
+	@Test
+	public void testBotDrawsAndGuesses() throws IOException, InterruptedException
+	{
+		PGBot bot = new PGBot("localhost", server.getLocalPort(), "bot", null, new String[] {"cat"}, 1);
+		bot.start();
+		accept();
+		
+		// Retries a taken username, then joins and asks for the lobby's state
+		reply(PGServerThread.MESSAGE_USERNAME_FAILURE);
+		assertEquals(fromClient.readUTF(), "bot");
+		reply(PGServerThread.MESSAGE_USERNAME_SUCCESS, PGServerThread.MESSAGE_JOIN_SUCCESS);
+		assertTrue(fromClient.readUTF().startsWith("bot-"));
+		assertEquals(fromClient.readUTF(), PGServerThread.MESSAGE_JOIN_PUBLIC);
+		assertEquals(fromClient.readUTF(), GameplayWindowEngine.HEADER_INFO);
+		
+		reply(PGServer.HEADER_ROLE + PGServer.ROLE_DRAW + "cat");
+		boolean released = false;
+		int points = 0;
+		while(!released)
+		{
+			String message = fromClient.readUTF();
+			if(message.equals(GameplayWindowEngine.HEADER_DRAWING + GameplayWindowEngine.DRAWING_RELEASE))
+				released = true;
+			else
+			{
+				assertTrue(message.startsWith(GameplayWindowEngine.HEADER_DRAWING));
+				points++;
+			}
+		}
+		assertTrue(points > 1);
+		
+		// Drawing stops once guessing (after any point already on its way)
+		reply(PGServer.HEADER_ROLE + PGServer.ROLE_GUESS);
+		String message = fromClient.readUTF();
+		while(message.startsWith(GameplayWindowEngine.HEADER_DRAWING))
+			message = fromClient.readUTF();
+		assertEquals(message, GameplayWindowEngine.HEADER_GUESS + "cat");
+		
+		reply(PGServer.HEADER_REMOVED);
+		bot.join(WAIT_MILLISECONDS);
+		assertFalse(bot.isAlive());
+		assertFalse(bot.isPlaying());
+		bot.shutdown();
+	}
+	
+	private void accept() throws IOException
+	{
+		connection = server.accept();
+		connection.setSoTimeout(TIMEOUT_MILLISECONDS);
+		fromClient = new DataInputStream(connection.getInputStream());
+		toClient = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+	}
+	
+	private void reply(String... messages) throws IOException
+	{
+		for(int i = 0; i < messages.length; i++)
+			toClient.writeUTF(messages[i]);
+		toClient.flush();
+	}
+}
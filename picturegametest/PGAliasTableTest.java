@@ -0,0 +1,54 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pgserver.PGAliasTable;
+
+public class PGAliasTableTest {
+
+	// Constants
+	private static final double[] WEIGHTS = {1.0, 0.0, 3.0, 4.0};
+	private static final int SAMPLES = 80000;
+	private static final long SEED = 42;
+	
+	// Data Members
+	private PGAliasTable table;
+	
+	@Before
+	public void initialize()
+	{
+		table = new PGAliasTable(WEIGHTS);
+	}
+	
+	@Test
+	public void testTotalWeight()
+	{
+		assertEquals(table.getTotalWeight(), 8.0, 0.0001);
+		assertEquals(table.size(), WEIGHTS.length);
+	}
+	
+	@Test
+	public void testDistribution()
+	{
+		Random rand = new Random(SEED);
+		int[] counts = new int[WEIGHTS.length];
+		for(int i = 0; i < SAMPLES; i++)
+			counts[table.sample(rand)]++;
+		
+		assertEquals(counts[1], 0); // zero weight is never picked
+		for(int i = 0; i < WEIGHTS.length; i++)
+			assertEquals((double) counts[i] / SAMPLES, WEIGHTS[i] / 8.0, 0.01);
+	}
+	
+	@Test
+	public void testSingleWeight()
+	{
+		PGAliasTable single = new PGAliasTable(new double[] {2.5});
+		assertEquals(single.sample(new Random(SEED)), 0);
+	}
+}
@@ -0,0 +1,121 @@
+package picturegametest;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import pgserver.PGFrame;
+import pgserver.PGServer;
+
+/**
+ * Chat burst benchmark, run as a plain Java program.  Compares the old
+ * fanout (encode and log once per recipient) with sending one PGFrame
+ * to every recipient.  Console output goes to a synchronized PrintStream
+ * that discards everything, so only the locking and formatting cost of
+ * logging is measured, not the terminal.
+ */
+public class PGChatBenchmark {
+
+	// Constants
+	private static final int RECIPIENTS = 8;
+	private static final int SENDERS = 4;
+	private static final int MESSAGES_PER_SENDER = 50000;
+	private static final String ADDRESS = "/192.168.0.17";
+	
+	public static void main(String[] args) throws InterruptedException
+	{
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(new NullStream(), true));
+		
+		burst(true);
+		burst(false); // warmup
+		long perRecipient = burst(true);
+		long encodedOnce = burst(false);
+		
+		System.setOut(console);
+		int messages = SENDERS * MESSAGES_PER_SENDER;
+		System.out.println(SENDERS + " senders, " + messages + " chat messages, " + RECIPIENTS + " recipients each");
+		System.out.println("Logged, encoded per recipient: " + (perRecipient / messages) + " ns per message");
+		System.out.println("Unlogged, encoded once: " + (encodedOnce / messages) + " ns per message");
+	}
+	
+	private static long burst(final boolean legacy) throws InterruptedException
+	{
+		final DataOutputStream[] outputs = new DataOutputStream[RECIPIENTS];
+		for(int i = 0; i < RECIPIENTS; i++)
+			outputs[i] = new DataOutputStream(new NullStream());
+		
+		Thread[] senders = new Thread[SENDERS];
+		for(int s = 0; s < SENDERS; s++)
+		{
+			final String name = "player" + s;
+			senders[s] = new Thread() {
+				public void run()
+				{
+					for(int m = 0; m < MESSAGES_PER_SENDER; m++)
+					{
+						String message = name + ": guess number " + m;
+						if(legacy)
+							sendLegacy(outputs, message);
+						else
+							send(outputs, new PGFrame(PGServer.HEADER_CHAT + message));
+					}
+				}
+			};
+		}
+		
+		long start = System.nanoTime();
+		for(int s = 0; s < SENDERS; s++)
+			senders[s].start();
+		for(int s = 0; s < SENDERS; s++)
+			senders[s].join();
+		
+		return System.nanoTime() - start;
+	}
+	
+	private static void sendLegacy(DataOutputStream[] outputs, String message)
+	{
+		System.out.println("Chat message \"" + message + "\" to lobby 0");
+		for(int i = 0; i < outputs.length; i++)
+		{
+			System.out.println("Sending to " + ADDRESS);
+			synchronized(outputs[i])
+			{
+				try
+				{
+					outputs[i].writeUTF(PGServer.HEADER_CHAT + message);
+					outputs[i].flush();
+				}
+				catch(IOException e)
+				{
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+	
+	private static void send(DataOutputStream[] outputs, PGFrame frame)
+	{
+		for(int i = 0; i < outputs.length; i++)
+		{
+			synchronized(outputs[i])
+			{
+				try
+				{
+					outputs[i].write(frame.getBytes());
+					outputs[i].flush();
+				}
+				catch(IOException e)
+				{
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+	
+	private static class NullStream extends OutputStream {
+		public void write(int b) {}
+		public void write(byte[] b, int off, int len) {}
+	}
+}
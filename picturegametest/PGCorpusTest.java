@@ -0,0 +1,145 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pgserver.PGCorpus;
+import pgserver.PGServerThread;
+import pgserver.PGWordList;
+
+public class PGCorpusTest {
+
+	// Constants
+	private static final String[] ANIMALS = {"cat", "dog", "mouse"};
+	private static final String[] DISNEY = {"Mickey Mouse", "Caf\u00e9"};
+	private static final String[] SMASH = {"Kirby", "Link"};
+	
+	// Data Members
+	private PGCorpus corpus;
+	
+	@Before
+	public void initialize()
+	{
+		ArrayList<PGWordList> lists = new ArrayList<PGWordList>();
+		lists.add(makeList("animals", ANIMALS));
+		lists.add(makeList("disney", DISNEY));
+		lists.add(makeList("smash", SMASH));
+		
+		corpus = new PGCorpus(lists);
+	}
+	
+	@Test
+	public void testWords()
+	{
+		assertEquals(corpus.size(), ANIMALS.length + DISNEY.length + SMASH.length);
+		assertEquals(corpus.getWord(0), "cat");
+		assertEquals(corpus.getWord(4), "Caf\u00e9");
+	}
+	
+	@Test
+	public void testCategories()
+	{
+		assertEquals(corpus.getCategoryCount(), 3);
+		assertEquals(corpus.getCategoryName(1), "disney");
+		
+		PGWordList disney = corpus.getCategory(1);
+		assertEquals(disney.size(), DISNEY.length);
+		assertEquals(disney.getWord(0), "Mickey Mouse");
+		assertEquals(corpus.compileAll().size(), corpus.size());
+	}
+	
+	@Test
+	public void testContains()
+	{
+		// Case-insensitive, non-ASCII words included
+		assertTrue(corpus.contains("MICKEY mouse", 0, corpus.size(), null));
+		assertTrue(corpus.contains("caf\u00c9", 0, corpus.size(), null));
+		assertFalse(corpus.contains("mickey", 0, corpus.size(), null));
+		assertFalse(corpus.contains("", 0, corpus.size(), null));
+		
+		// Only IDs in the range and selection count
+		assertFalse(corpus.contains("kirby", 0, ANIMALS.length, null));
+		BitSet selection = new BitSet();
+		selection.set(0, ANIMALS.length);
+		assertFalse(corpus.contains("kirby", 0, corpus.size(), selection));
+		assertTrue(corpus.contains("Dog", 0, corpus.size(), selection));
+		
+		// A word in two categories is found through either
+		ArrayList<PGWordList> lists = new ArrayList<PGWordList>();
+		lists.add(makeList("animals", ANIMALS));
+		lists.add(makeList("more animals", new String[] {"Mouse", "horse"}));
+		PGCorpus twice = new PGCorpus(lists);
+		assertTrue(twice.getCategory(0).contains("mouse"));
+		assertTrue(twice.getCategory(1).contains("mouse"));
+		assertFalse(twice.getCategory(0).contains("horse"));
+	}
+	
+	@Test
+	public void testSeparatorInCategoryName()
+	{
+		ArrayList<PGWordList> lists = new ArrayList<PGWordList>();
+		lists.add(makeList("cats" + PGServerThread.CATEGORY_SEPARATOR + "dogs ", ANIMALS));
+		lists.add(makeList("smash", SMASH));
+		PGCorpus named = new PGCorpus(lists);
+		
+		String name = named.getCategoryName(0);
+		assertEquals(name.split(PGServerThread.CATEGORY_SEPARATOR).length, 1);
+		assertEquals(named.compile(new String[] {name}).size(), ANIMALS.length);
+	}
+	
+	@Test
+	public void testCompileCategories()
+	{
+		String[] selected = {"animals", "SMASH"};
+		PGWordList list = corpus.compile(selected);
+		assertEquals(list.size(), ANIMALS.length + SMASH.length);
+		assertTrue(list.contains("kirby"));
+		assertFalse(list.contains("mickey mouse"));
+		
+		// Every word comes up once before the list resets
+		ArrayList<String> drawn = new ArrayList<String>();
+		for(int i = 0; i < list.size(); i++)
+		{
+			String word = list.getRandomWord();
+			assertFalse(drawn.contains(word));
+			drawn.add(word);
+		}
+		assertTrue(list.allUsed());
+		
+		assertEquals(corpus.compile(new String[] {"disney"}).size(), DISNEY.length);
+		assertEquals(corpus.compile(new String[] {"unknown"}).size(), corpus.size());
+		assertEquals(corpus.compile(null).size(), corpus.size());
+	}
+	
+	@Test
+	public void testWriteAndLoad() throws IOException
+	{
+		File file = File.createTempFile("corpus", PGCorpus.PACKED_EXTENSION);
+		file.deleteOnExit();
+		corpus.write(file);
+		
+		PGCorpus loaded = PGCorpus.load(file);
+		assertEquals(loaded.size(), corpus.size());
+		assertEquals(loaded.getCategoryCount(), corpus.getCategoryCount());
+		for(int i = 0; i < corpus.size(); i++)
+			assertEquals(loaded.getWord(i), corpus.getWord(i));
+		for(int i = 0; i < corpus.getCategoryCount(); i++)
+			assertEquals(loaded.getCategoryName(i), corpus.getCategoryName(i));
+	}
+	
+	private static PGWordList makeList(String name, String[] words)
+	{
+		ArrayList<String> list = new ArrayList<String>();
+		for(int i = 0; i < words.length; i++)
+			list.add(words[i]);
+		
+		return new PGWordList(name, list);
+	}
+}
@@ -0,0 +1,69 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import pgserver.PGFrame;
+import pgserver.PGServer;
+
+public class PGFrameTest {
+
+	// Constants
+	private static final String MESSAGE = PGServer.HEADER_CHAT + "alice: caf\u00e9?";
+	
+	@Test
+	public void testReadsBackAsUTF() throws IOException
+	{
+		PGFrame frame = new PGFrame(MESSAGE);
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(frame.getBytes()));
+		
+		assertEquals(input.readUTF(), MESSAGE);
+		assertEquals(input.available(), 0);
+		assertEquals(frame.getMessage(), MESSAGE);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooLong()
+	{
+		new PGFrame(new String(new char[70000]));
+	}
+	
+	@Test
+	public void testBundle()
+	{
+		String[] messages = {PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_ROUND_END,
+			PGServer.HEADER_CLIENT_LIST + "1\n1 alice\n2 bob\n", MESSAGE, "12:34", ""};
+		PGFrame frame = new PGFrame(messages);
+		
+		assertTrue(frame.getMessage().startsWith(PGServer.HEADER_BUNDLE));
+		assertArrayEquals(frame.getParts(), messages);
+		assertArrayEquals(PGFrame.unbundle(frame.getMessage()), messages);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedBundle()
+	{
+		PGFrame.unbundle(PGServer.HEADER_BUNDLE + "99:short");
+	}
+	
+	@Test
+	public void testBadBundleLengths()
+	{
+		String[] lengths = {"-3", "x", "", "+", "99999999999", "2147483647"};
+		for(int i = 0; i < lengths.length; i++)
+			try
+			{
+				PGFrame.unbundle(PGServer.HEADER_BUNDLE + lengths[i] + ":abc");
+				fail("Accepted length " + lengths[i]);
+			}
+			catch(IllegalArgumentException e)
+			{
+				// Expected
+			}
+	}
+}
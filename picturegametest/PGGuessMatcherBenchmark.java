@@ -0,0 +1,41 @@
+package picturegametest;
+
+import pgserver.PGGuessMatcher;
+
+/**
+ * Microbenchmark for PGGuessMatcher, run as a plain Java program.  Prints
+ * the average cost of checking one guess against the current word.
+ */
+public class PGGuessMatcherBenchmark {
+
+	// Constants
+	private static final String WORD = "tyrannosaurus";
+	private static final String[] GUESSES = {"tyranosaurus", "dinosaur", "t-rex",
+		"tyrannosaurus rex", "tyrannasorus", "Tyrannosaurus", "raptor", "tyranosuarus"};
+	private static final int WARMUP_ROUNDS = 200000;
+	private static final int MEASURED_ROUNDS = 2000000;
+	
+	public static void main(String[] args)
+	{
+		PGGuessMatcher matcher = new PGGuessMatcher(WORD);
+		
+		long checksum = run(matcher, WARMUP_ROUNDS);
+		
+		long start = System.nanoTime();
+		checksum += run(matcher, MEASURED_ROUNDS);
+		long elapsed = System.nanoTime() - start;
+		
+		System.out.println("Guesses checked: " + MEASURED_ROUNDS);
+		System.out.println("Average ns per guess: " + ((double) elapsed / MEASURED_ROUNDS));
+		System.out.println("(checksum " + checksum + ")");
+	}
+	
+	private static long run(PGGuessMatcher matcher, int rounds)
+	{
+		long sum = 0;
+		for(int i = 0; i < rounds; i++)
+			sum += matcher.distance(GUESSES[i % GUESSES.length]);
+		
+		return sum;
+	}
+}
@@ -0,0 +1,63 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pgserver.PGGuessMatcher;
+
+public class PGGuessMatcherTest {
+
+	// Constants
+	private static final String WORD = "Elephant";
+	
+	// Data Members
+	private PGGuessMatcher matcher;
+	
+	@Before
+	public void initialize()
+	{
+		matcher = new PGGuessMatcher(WORD);
+	}
+	
+	@Test
+	public void testExactMatch()
+	{
+		assertEquals(matcher.distance("elephant"), 0);
+		assertEquals(matcher.distance("ELEPHANT"), 0);
+		assertFalse(matcher.isClose("elephant"));
+	}
+	
+	@Test
+	public void testNearMisses()
+	{
+		assertEquals(matcher.distance("elefant"), 2); // substitution + deletion
+		assertEquals(matcher.distance("elepant"), 1); // deletion
+		assertEquals(matcher.distance("elephants"), 1); // insertion
+		assertEquals(matcher.distance("elehpant"), 1); // transposition
+		assertTrue(matcher.isClose("elepahnt"));
+		assertTrue(matcher.isClose("Elephunt"));
+	}
+	
+	@Test
+	public void testFarGuesses()
+	{
+		int far = matcher.getMaxDistance() + 1;
+		assertEquals(matcher.distance("giraffe"), far);
+		assertEquals(matcher.distance("ant"), far);
+		assertEquals(matcher.distance(""), far);
+		assertFalse(matcher.isClose("elephantine"));
+	}
+	
+	@Test
+	public void testShortWord()
+	{
+		PGGuessMatcher shortMatcher = new PGGuessMatcher("cat");
+		assertTrue(shortMatcher.isClose("bat"));
+		assertTrue(shortMatcher.isClose("act"));
+		assertTrue(shortMatcher.isClose("c"));
+		assertFalse(shortMatcher.isClose(""));
+		assertFalse(shortMatcher.isClose("dog"));
+	}
+}
@@ -7,7 +7,9 @@ import java.util.ArrayList;
 import org.junit.Before;
 import org.junit.Test;
 
+import pgserver.PGFrame;
 import pgserver.PGLobby;
+import pgserver.PGServer;
 import pgserver.PGServerThread;
 import pgserver.PGWordList;
 
@@ -77,4 +79,32 @@ public class PGLobbyTest {
 		String key = privateLobby.generateKey();
 		assertTrue(key.equals(privateLobby.getKey()));
 	}
+	
+	@Test
+	public void testGetRosterFrame()
+	{
+		PGFrame empty = publicLobby.getRosterFrame();
+		assertTrue(empty.getMessage().startsWith(PGServer.HEADER_CLIENT_LIST));
+		assertSame(empty, publicLobby.getRosterFrame()); // cached until something changes
+		
+		publicLobby.addClient(new PGServerThread(null, null));
+		PGFrame oneClient = publicLobby.getRosterFrame();
+		assertNotSame(empty, oneClient);
+		assertTrue(oneClient.getBytes().length > empty.getBytes().length);
+	}
+	
+	@Test
+	public void testChatHistory()
+	{
+		assertEquals(publicLobby.getChatHistory().length, 0);
+		
+		int sent = PGLobby.CHAT_HISTORY_SIZE + 10;
+		for(int i = 0; i < sent; i++)
+			publicLobby.addChatHistory(new PGFrame(PGServer.HEADER_CHAT + i));
+		
+		PGFrame[] history = publicLobby.getChatHistory();
+		assertEquals(history.length, PGLobby.CHAT_HISTORY_SIZE);
+		assertEquals(history[0].getMessage(), PGServer.HEADER_CHAT + (sent - PGLobby.CHAT_HISTORY_SIZE));
+		assertEquals(history[history.length - 1].getMessage(), PGServer.HEADER_CHAT + (sent - 1));
+	}
 }
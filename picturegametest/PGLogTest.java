@@ -0,0 +1,41 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+import pgserver.PGLog;
+
+public class PGLogTest {
+
+	@After
+	public void restore()
+	{
+		PGLog.setLevel(PGLog.GAMEPLAY, PGLog.INFO);
+	}
+	
+	@Test
+	public void testLevels()
+	{
+		PGLog.setLevel(PGLog.GAMEPLAY, PGLog.WARN);
+		assertTrue(PGLog.isEnabled(PGLog.GAMEPLAY, PGLog.ERROR));
+		assertTrue(PGLog.isEnabled(PGLog.GAMEPLAY, PGLog.WARN));
+		assertFalse(PGLog.isEnabled(PGLog.GAMEPLAY, PGLog.INFO));
+		assertEquals(PGLog.getLevel(PGLog.GAMEPLAY), PGLog.WARN);
+		
+		PGLog.setLevel(PGLog.GAMEPLAY, PGLog.OFF);
+		assertFalse(PGLog.isEnabled(PGLog.GAMEPLAY, PGLog.ERROR));
+	}
+	
+	@Test
+	public void testDisabledIsNotQueued()
+	{
+		PGLog.setLevel(PGLog.GAMEPLAY, PGLog.OFF);
+		long dropped = PGLog.getDropped();
+		for(int i = 0; i < 100000; i++)
+			PGLog.error(PGLog.GAMEPLAY, "not logged");
+		
+		assertEquals(PGLog.getDropped(), dropped);
+	}
+}
@@ -0,0 +1,170 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pgserver.PGFrame;
+import pgserver.PGOutbox;
+import pgserver.PGServer;
+
+public class PGOutboxTest {
+
+	// Constants
+	private static final String STROKE = PGServer.HEADER_DRAWING + "10 20 -16777216";
+	private static final String RELEASE = PGServer.HEADER_DRAWING + PGServer.DRAWING_RELEASE;
+	private static final String ROUND_END = PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_ROUND_END + "1";
+	
+	// Data Members
+	private ByteArrayOutputStream sent;
+	private PGOutbox outbox;
+	
+	@Before
+	public void initialize()
+	{
+		sent = new ByteArrayOutputStream();
+		outbox = new PGOutbox(sent, "test");
+	}
+	
+	@Test
+	public void testLanes()
+	{
+		outbox.send(new PGFrame(STROKE));
+		outbox.send(new PGFrame(PGServer.HEADER_CHAT + "hi"));
+		
+		assertEquals(outbox.getQueued(PGOutbox.LANE_DRAWING), 1);
+		assertEquals(outbox.getQueued(PGOutbox.LANE_CONTROL), 1);
+	}
+	
+	@Test
+	public void testClearPurgesStrokes()
+	{
+		for(int i = 0; i < 10; i++)
+			outbox.send(new PGFrame(STROKE));
+		outbox.send(new PGFrame(PGServer.HEADER_DRAWING + PGServer.DRAWING_CLEAR));
+		outbox.send(new PGFrame(STROKE));
+		
+		assertEquals(outbox.getQueued(PGOutbox.LANE_DRAWING), 2);
+		
+		outbox.send(new PGFrame(new String[] {PGServer.HEADER_CHAT + "round over", ROUND_END}));
+		assertEquals(outbox.getQueued(PGOutbox.LANE_DRAWING), 0);
+		assertEquals(outbox.getQueued(PGOutbox.LANE_CONTROL), 1);
+	}
+	
+	@Test
+	public void testConflation() throws IOException, InterruptedException
+	{
+		outbox.send(new PGFrame(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_SCORE + "0 0"));
+		outbox.send(new PGFrame(PGServer.HEADER_CHAT + "hi"));
+		outbox.send(new PGFrame(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_SCORE + "1 0"));
+		outbox.send(new PGFrame(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_SCORE + "1 1"));
+		
+		assertEquals(outbox.getQueued(PGOutbox.LANE_CONTROL), 2);
+		
+		outbox.start();
+		for(int i = 0; (i < 100) && (outbox.getQueued(PGOutbox.LANE_CONTROL) > 0); i++)
+			Thread.sleep(10);
+		Thread.sleep(50);
+		outbox.close();
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(sent.toByteArray()));
+		assertEquals(input.readUTF(), PGServer.HEADER_CHAT + "hi");
+		assertEquals(input.readUTF(), PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_SCORE + "1 1");
+		assertEquals(input.available(), 0);
+	}
+	
+	@Test
+	public void testControlFirst() throws IOException, InterruptedException
+	{
+		outbox.send(new PGFrame(STROKE));
+		outbox.send(new PGFrame(PGServer.HEADER_CHAT + "hi"));
+		outbox.start();
+		
+		for(int i = 0; (i < 100) && (outbox.getQueued(PGOutbox.LANE_DRAWING) > 0); i++)
+			Thread.sleep(10);
+		Thread.sleep(50);
+		outbox.close();
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(sent.toByteArray()));
+		assertEquals(input.readUTF(), PGServer.HEADER_CHAT + "hi");
+		assertEquals(input.readUTF(), STROKE);
+	}
+	
+	@Test
+	public void testDrawingLaneDropsOldest() throws IOException, InterruptedException
+	{
+		for(int i = 0; i < PGOutbox.MAX_DRAWING + 10; i++)
+			outbox.send(new PGFrame(PGServer.HEADER_DRAWING + i + " 0 0"));
+		
+		assertEquals(outbox.getQueued(PGOutbox.LANE_DRAWING), PGOutbox.MAX_DRAWING);
+		assertEquals(outbox.getDropped(), 10);
+		
+		outbox.start();
+		for(int i = 0; (i < 100) && (outbox.getQueued(PGOutbox.LANE_DRAWING) > 0); i++)
+			Thread.sleep(10);
+		Thread.sleep(50);
+		outbox.close();
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(sent.toByteArray()));
+		assertEquals(input.readUTF(), PGServer.HEADER_DRAWING + "10 0 0");
+	}
+	
+	@Test
+	public void testDroppingKeepsStrokesApart() throws IOException, InterruptedException
+	{
+		// Two strokes, then enough points to drop the whole first stroke and more
+		outbox.send(new PGFrame(PGServer.HEADER_DRAWING + PGServer.DRAWING_CLEAR));
+		outbox.send(new PGFrame(PGServer.HEADER_DRAWING + "a 0 0"));
+		outbox.send(new PGFrame(RELEASE));
+		outbox.send(new PGFrame(RELEASE)); // nothing to release
+		outbox.send(new PGFrame(PGServer.HEADER_DRAWING + "b 0 0"));
+		outbox.send(new PGFrame(RELEASE));
+		for(int i = 0; i < PGOutbox.MAX_DRAWING; i++)
+			outbox.send(new PGFrame(PGServer.HEADER_DRAWING + i + " 0 0"));
+		
+		assertEquals(outbox.getQueued(PGOutbox.LANE_DRAWING), PGOutbox.MAX_DRAWING);
+		
+		outbox.start();
+		for(int i = 0; (i < 100) && (outbox.getQueued(PGOutbox.LANE_DRAWING) > 0); i++)
+			Thread.sleep(10);
+		Thread.sleep(50);
+		outbox.close();
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(sent.toByteArray()));
+		assertEquals(input.readUTF(), PGServer.HEADER_DRAWING + PGServer.DRAWING_CLEAR);
+		assertEquals(input.readUTF(), RELEASE);
+		assertEquals(input.readUTF(), RELEASE);
+		assertEquals(input.readUTF(), PGServer.HEADER_DRAWING + (outbox.getDropped() - 2) + " 0 0");
+	}
+	
+	@Test
+	public void testControlBacklogDisconnects()
+	{
+		final boolean[] closed = {false};
+		outbox = new PGOutbox(new ByteArrayOutputStream() {
+			public void close()
+			{
+				closed[0] = true;
+			}
+		}, "test");
+		
+		// Conflated snapshots don't count towards the backlog
+		for(int i = 0; i < PGOutbox.MAX_CONTROL * 2; i++)
+			outbox.send(new PGFrame(PGServer.HEADER_DEADLINE + i + " " + i));
+		for(int i = 0; i < PGOutbox.MAX_CONTROL - 1; i++)
+			outbox.send(new PGFrame(PGServer.HEADER_CHAT + i));
+		assertTrue(outbox.isOpen());
+		assertFalse(closed[0]);
+		
+		outbox.send(new PGFrame(PGServer.HEADER_CHAT + "one too many"));
+		assertFalse(outbox.isOpen());
+		assertTrue(closed[0]);
+		assertEquals(outbox.getQueued(PGOutbox.LANE_CONTROL), 0);
+	}
+}
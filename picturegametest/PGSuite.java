@@ -5,6 +5,11 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({PGLobbyTest.class, PGWordListTest.class})
+@SuiteClasses({PGLobbyTest.class, PGWordListTest.class, PGGuessMatcherTest.class,
+	PGCorpusTest.class, PGAliasTableTest.class, PGFrameTest.class,
+	PGLogTest.class, PGOutboxTest.class, StrokeQueueTest.class,
+	StrokeModelTest.class, StrokeSimplifierTest.class,
+	ServerMessageDecoderTest.class, ClientOutboxTest.class,
+	GameClientTest.class, PGWordStatsTest.class})
 
 public class PGSuite {}
@@ -102,4 +102,11 @@ public class PGWordListTest {
 		assertFalse(wordlist.allUsed());
 	}
 	
+	@Test
+	public void testContains()
+	{
+		assertTrue(wordlist.contains("dog"));
+		assertTrue(wordlist.contains("MOUSE"));
+		assertFalse(wordlist.contains("horse"));
+	}
 }
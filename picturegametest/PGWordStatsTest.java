@@ -0,0 +1,142 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pgserver.PGCorpus;
+import pgserver.PGWordList;
+import pgserver.PGWordStats;
+
+public class PGWordStatsTest {
+	
+	// Constants
+	private static final int SMALL_SIZE = 10;
+	private static final int LARGE_SIZE = 20000; // several blocks
+	private static final int TIME_LIMIT = 60;
+	private static final int SAMPLES = 100000;
+	private static final long SEED = 42;
+	
+	// Data Members
+	private PGCorpus corpus;
+	private PGWordStats stats;
+	
+	@Before
+	public void initialize()
+	{
+		ArrayList<PGWordList> lists = new ArrayList<PGWordList>();
+		lists.add(makeList("small", SMALL_SIZE));
+		lists.add(makeList("large", LARGE_SIZE));
+		corpus = new PGCorpus(lists);
+		stats = corpus.getStats();
+	}
+	
+	@Test
+	public void testFavorsTargetDifficulty()
+	{
+		// Word 0 is never solved, word 1 is solved at once, word 2 takes half the time
+		for(int i = 0; i < 20; i++)
+		{
+			stats.record(0, false, 0, TIME_LIMIT);
+			stats.record(1, true, 0, TIME_LIMIT);
+			stats.record(2, true, TIME_LIMIT / 2, TIME_LIMIT);
+		}
+		stats.rebuild();
+		
+		Random rand = new Random(SEED);
+		int[] counts = new int[SMALL_SIZE];
+		int[] small = {0};
+		for(int i = 0; i < SAMPLES; i++)
+			counts[stats.sample(rand, small)]++;
+		
+		assertTrue(counts[0] > 0); // still in rotation
+		assertTrue(counts[2] > 10 * counts[0]);
+		assertTrue(counts[2] > 10 * counts[1]);
+		assertEquals((double) counts[2] / counts[3], 1.0, 0.1); // unplayed words weigh as much as on-target ones
+	}
+	
+	@Test
+	public void testRebuildsOnlyChangedBlocks()
+	{
+		int first = corpus.getCategoryStart(1);
+		stats.record(first, false, 0, TIME_LIMIT);
+		stats.rebuild();
+		long afterOne = stats.getRebuiltWords();
+		assertTrue(afterOne > 0);
+		assertTrue(afterOne < LARGE_SIZE);
+		
+		// Nothing changed, nothing rebuilt
+		stats.rebuild();
+		assertEquals(stats.getRebuiltWords(), afterOne);
+		
+		// The last word's block only
+		stats.record(corpus.getCategoryEnd(1) - 1, false, 0, TIME_LIMIT);
+		stats.rebuild();
+		assertTrue(stats.getRebuiltWords() - afterOne < LARGE_SIZE);
+	}
+	
+	@Test
+	public void testSamplesStayInCategory()
+	{
+		for(int i = 0; i < 50; i++)
+			stats.record(corpus.getCategoryStart(1) + i * 397, i % 2 == 0, i, TIME_LIMIT);
+		stats.rebuild();
+		
+		Random rand = new Random(SEED);
+		int[] large = {1};
+		int[] both = {0, 1};
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			int id = stats.sample(rand, large);
+			assertTrue((id >= corpus.getCategoryStart(1)) && (id < corpus.getCategoryEnd(1)));
+			id = stats.sample(rand, both);
+			assertTrue((id >= 0) && (id < corpus.size()));
+		}
+	}
+	
+	@Test
+	public void testCarryOverOnReload()
+	{
+		for(int i = 0; i < 20; i++)
+			stats.record(2, false, 0, TIME_LIMIT); // far too hard
+		stats.record(corpus.getCategoryStart(1), false, 0, TIME_LIMIT);
+		
+		// Reloaded with a new word at the front of "small", so IDs move
+		ArrayList<String> small = new ArrayList<String>();
+		small.add("new");
+		for(int i = 0; i < SMALL_SIZE; i++)
+			small.add("SMALL" + i); // case doesn't matter
+		ArrayList<PGWordList> lists = new ArrayList<PGWordList>();
+		lists.add(new PGWordList("small", small));
+		lists.add(makeList("large", LARGE_SIZE));
+		PGCorpus reloaded = new PGCorpus(lists);
+		reloaded.takeStats(corpus);
+		PGWordStats kept = reloaded.getStats();
+		
+		assertEquals(kept.getRounds(3), 20);
+		assertEquals(kept.getSolves(3), 0);
+		assertEquals(kept.getRounds(0), 0);
+		assertEquals(kept.getRounds(reloaded.getCategoryStart(1)), 1);
+		
+		// Weights come across too, not just counts
+		Random rand = new Random(SEED);
+		int[] counts = new int[SMALL_SIZE + 1];
+		int[] first = {0};
+		for(int i = 0; i < SAMPLES; i++)
+			counts[kept.sample(rand, first)]++;
+		assertTrue(counts[3] * 5 < counts[0]);
+	}
+	
+	private static PGWordList makeList(String name, int size)
+	{
+		ArrayList<String> words = new ArrayList<String>();
+		for(int i = 0; i < size; i++)
+			words.add(name + i);
+		
+		return new PGWordList(name, words);
+	}
+}
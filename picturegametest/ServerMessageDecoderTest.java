@@ -0,0 +1,251 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pgserver.PGFrame;
+import pgserver.PGServer;
+import picturegame.ServerMessageDecoder;
+import picturegame.ServerMessageHandler;
+
+public class ServerMessageDecoderTest implements ServerMessageHandler {
+	
+	// Data Members
+	private ServerMessageDecoder decoder;
+	private ArrayList<String> calls;
+	
+	@Before
+	public void initialize()
+	{
+		decoder = new ServerMessageDecoder(this);
+		calls = new ArrayList<String>();
+	}
+	
+	@Test
+	public void testDrawing()
+	{
+		assertTrue(decoder.decode(PGServer.HEADER_DRAWING + "10 20 -16777216"));
+		assertTrue(decoder.decode(PGServer.HEADER_DRAWING + PGServer.DRAWING_RELEASE));
+		assertTrue(decoder.decode(PGServer.HEADER_DRAWING + PGServer.DRAWING_CLEAR));
+		
+		assertEquals(calls.size(), 3);
+		assertEquals(calls.get(0), "drawPoint 10 20 -16777216");
+		assertEquals(calls.get(1), "drawRelease");
+		assertEquals(calls.get(2), "drawClear");
+	}
+	
+	@Test
+	public void testHeadersSharingAPrefix()
+	{
+		decoder.decode(PGServer.HEADER_ROLE + PGServer.ROLE_DRAW + "cat");
+		decoder.decode(PGServer.HEADER_ROLE + PGServer.ROLE_GUESS);
+		decoder.decode(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_SCORE + "3 12");
+		decoder.decode(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_GAME_END + "Team 2 wins");
+		decoder.decode(PGServer.HEADER_GUESS_LIST + "a,b");
+		decoder.decode(PGServer.HEADER_GUESS_ADDED + "c");
+		
+		assertEquals(calls.get(0), "roleDraw cat");
+		assertEquals(calls.get(1), "roleGuess");
+		assertEquals(calls.get(2), "score 3 12");
+		assertEquals(calls.get(3), "gameEnd Team 2 wins");
+		assertEquals(calls.get(4), "guessList a,b");
+		assertEquals(calls.get(5), "guessAdded c");
+	}
+	
+	@Test
+	public void testPlayersAndDeadline()
+	{
+		decoder.decode(PGServer.HEADER_PLAYER_JOINED + "1 bob smith");
+		decoder.decode(PGServer.HEADER_PLAYER_TEAM + "2 bob smith");
+		decoder.decode(PGServer.HEADER_PLAYER_LEFT + "bob smith");
+		decoder.decode(PGServer.HEADER_DEADLINE + "1792972800000 1792972860000");
+		
+		assertEquals(calls.get(0), "playerJoined 1 bob smith");
+		assertEquals(calls.get(1), "playerTeamChanged 2 bob smith");
+		assertEquals(calls.get(2), "playerLeft bob smith");
+		assertEquals(calls.get(3), "deadline 1792972800000 1792972860000");
+	}
+	
+	@Test
+	public void testBundle()
+	{
+		PGFrame bundle = new PGFrame(new String[] {PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_ROUND_END + "timeout",
+				PGServer.HEADER_CHAT + "hi"});
+		assertTrue(decoder.decode(bundle.getMessage()));
+		
+		assertEquals(calls.size(), 2);
+		assertEquals(calls.get(0), "roundEnd");
+		assertEquals(calls.get(1), "chat hi");
+	}
+	
+	@Test
+	public void testUnknown()
+	{
+		assertFalse(decoder.decode(""));
+		assertFalse(decoder.decode("NONSENSE"));
+		assertFalse(decoder.decode(PGServer.HEADER_GAME_UPDATE + PGServer.UPDATE_WAITING_PLAYERS));
+		assertFalse(decoder.decode(PGServer.HEADER_DRAWING.substring(0, 3)));
+		assertTrue(calls.isEmpty());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadNumber()
+	{
+		decoder.decode(PGServer.HEADER_DRAWING + "10 x 5");
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingField()
+	{
+		decoder.decode(PGServer.HEADER_PLAYER_JOINED + "3");
+	}
+	
+	@Test
+	public void testParseInt()
+	{
+		assertEquals(ServerMessageDecoder.parseInt("x=-42;", 2, 5), -42);
+		assertEquals(ServerMessageDecoder.parseInt("2147483647", 0, 10), Integer.MAX_VALUE);
+		
+		try
+		{
+			ServerMessageDecoder.parseInt("2147483648", 0, 10);
+			fail();
+		}
+		catch(NumberFormatException e)
+		{
+		}
+		
+		try
+		{
+			ServerMessageDecoder.parseInt("-", 0, 1);
+			fail();
+		}
+		catch(NumberFormatException e)
+		{
+		}
+	}
+	
+	@Override
+	public void chat(String message)
+	{
+		calls.add("chat " + message);
+	}
+	
+	@Override
+	public void drawPoint(int x, int y, int rgb)
+	{
+		calls.add("drawPoint " + x + " " + y + " " + rgb);
+	}
+	
+	@Override
+	public void drawRelease()
+	{
+		calls.add("drawRelease");
+	}
+	
+	@Override
+	public void drawClear()
+	{
+		calls.add("drawClear");
+	}
+	
+	@Override
+	public void roleDraw(String word)
+	{
+		calls.add("roleDraw " + word);
+	}
+	
+	@Override
+	public void roleGuess()
+	{
+		calls.add("roleGuess");
+	}
+	
+	@Override
+	public void gameStart()
+	{
+		calls.add("gameStart");
+	}
+	
+	@Override
+	public void roundEnd()
+	{
+		calls.add("roundEnd");
+	}
+	
+	@Override
+	public void correctGuess()
+	{
+		calls.add("correctGuess");
+	}
+	
+	@Override
+	public void score(int team1, int team2)
+	{
+		calls.add("score " + team1 + " " + team2);
+	}
+	
+	@Override
+	public void gameEnd(String result)
+	{
+		calls.add("gameEnd " + result);
+	}
+	
+	@Override
+	public void rebalancing()
+	{
+		calls.add("rebalancing");
+	}
+	
+	@Override
+	public void playerList(String list)
+	{
+		calls.add("playerList " + list);
+	}
+	
+	@Override
+	public void playerJoined(int team, String name)
+	{
+		calls.add("playerJoined " + team + " " + name);
+	}
+	
+	@Override
+	public void playerLeft(String name)
+	{
+		calls.add("playerLeft " + name);
+	}
+	
+	@Override
+	public void playerTeamChanged(int team, String name)
+	{
+		calls.add("playerTeamChanged " + team + " " + name);
+	}
+	
+	@Override
+	public void guessList(String list)
+	{
+		calls.add("guessList " + list);
+	}
+	
+	@Override
+	public void guessAdded(String guess)
+	{
+		calls.add("guessAdded " + guess);
+	}
+	
+	@Override
+	public void deadline(long serverTime, long deadline)
+	{
+		calls.add("deadline " + serverTime + " " + deadline);
+	}
+	
+	@Override
+	public void removed()
+	{
+		calls.add("removed");
+	}
+}
@@ -0,0 +1,90 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import picturegame.StrokeModel;
+
+public class StrokeModelTest {
+	
+	// Constants
+	private static final int SIZE = 100;
+	
+	// Data Members
+	private StrokeModel model;
+	
+	@Before
+	public void initialize()
+	{
+		model = new StrokeModel();
+		model.addPoint(0.1f, 0.5f, Color.RED.getRGB());
+		model.addPoint(0.9f, 0.5f, Color.RED.getRGB());
+		model.endStroke();
+		model.addPoint(0.5f, 0.1f, Color.BLUE.getRGB());
+		model.addPoint(0.5f, 0.2f, Color.BLUE.getRGB());
+	}
+	
+	@Test
+	public void testCounts()
+	{
+		assertEquals(model.getPointCount(), 4);
+		assertEquals(model.getStrokeCount(), 2);
+		
+		assertTrue(model.removeLastStroke());
+		assertEquals(model.getPointCount(), 2);
+		assertEquals(model.getStrokeCount(), 1);
+		
+		model.clear();
+		assertEquals(model.getPointCount(), 0);
+		assertFalse(model.removeLastStroke());
+	}
+	
+	@Test
+	public void testGrows()
+	{
+		model.clear();
+		for(int i = 0; i < 5000; i++)
+		{
+			model.addPoint(i / 5000f, 0.5f, Color.BLACK.getRGB());
+			if(i % 10 == 9)
+				model.endStroke();
+		}
+		
+		assertEquals(model.getPointCount(), 5000);
+		assertEquals(model.getStrokeCount(), 500);
+	}
+	
+	@Test
+	public void testRenderAtAnySize()
+	{
+		BufferedImage small = render(SIZE);
+		assertEquals(small.getRGB(SIZE / 2, SIZE / 2), Color.RED.getRGB());
+		assertEquals(small.getRGB(SIZE / 2, SIZE * 15 / 100), Color.BLUE.getRGB());
+		
+		BufferedImage large = render(SIZE * 3);
+		assertEquals(large.getRGB(SIZE * 3 / 2, SIZE * 3 / 2), Color.RED.getRGB());
+		assertEquals(large.getRGB(SIZE * 3 / 2, SIZE * 3 * 15 / 100), Color.BLUE.getRGB());
+	}
+	
+	@Test
+	public void testPixelRoundTrip()
+	{
+		for(int p = 0; p <= 1000; p++)
+			assertEquals(StrokeModel.toPixel(StrokeModel.toFraction(p, 1000), 1000), p);
+	}
+	
+	private BufferedImage render(int size)
+	{
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		model.render(g, size, size);
+		g.dispose();
+		return image;
+	}
+}
@@ -0,0 +1,135 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import picturegame.DrawZone;
+import picturegame.StrokeModel;
+import picturegame.StrokeQueue;
+
+public class StrokeQueueTest {
+
+	// Constants
+	private static final int SIZE = 50;
+	private static final int EVENTS = 100000; // more than the queue holds at once
+	
+	// Data Members
+	private DrawZone zone;
+	private StrokeQueue queue;
+	
+	@Before
+	public void initialize()
+	{
+		zone = new DrawZone(null);
+		zone.setSize(SIZE, SIZE);
+		zone.reset();
+		queue = new StrokeQueue();
+	}
+	
+	@Test
+	public void testDrainsInOrder()
+	{
+		queue.add(StrokeQueue.POINT, units(10), units(10), Color.RED.getRGB());
+		queue.add(StrokeQueue.POINT, units(20), units(10), Color.RED.getRGB());
+		queue.add(StrokeQueue.RELEASE, 0, 0, 0);
+		queue.add(StrokeQueue.POINT, units(30), units(30), Color.BLUE.getRGB());
+		assertFalse(queue.isEmpty());
+		
+		assertEquals(queue.drainTo(zone), 4);
+		assertTrue(queue.isEmpty());
+		
+		BufferedImage image = render();
+		assertEquals(image.getRGB(15, 10), Color.RED.getRGB());
+		assertEquals(image.getRGB(25, 20), Color.WHITE.getRGB()); // released, so not joined up
+		assertEquals(image.getRGB(30, 30), Color.BLUE.getRGB());
+	}
+	
+	@Test
+	public void testResetAfterQueuedPoints()
+	{
+		queue.add(StrokeQueue.POINT, units(10), units(10), Color.RED.getRGB());
+		queue.add(StrokeQueue.POINT, units(20), units(10), Color.RED.getRGB());
+		queue.add(StrokeQueue.RESET, 0, 0, 0);
+		queue.drainTo(zone);
+		
+		assertEquals(render().getRGB(15, 10), Color.WHITE.getRGB());
+	}
+	
+	@Test
+	public void testReceivedPointsScaleToCanvas()
+	{
+		// Same points on a canvas twice the size land twice as far in
+		DrawZone large = new DrawZone(null);
+		large.setSize(SIZE * 2, SIZE * 2);
+		large.reset();
+		queue.add(StrokeQueue.POINT, units(10), units(10), Color.RED.getRGB());
+		queue.add(StrokeQueue.POINT, units(20), units(10), Color.RED.getRGB());
+		queue.add(StrokeQueue.RELEASE, 0, 0, 0);
+		queue.drainTo(large);
+		
+		BufferedImage image = new BufferedImage(SIZE * 2, SIZE * 2, BufferedImage.TYPE_INT_RGB);
+		large.paint(image.createGraphics());
+		assertEquals(image.getRGB(30, 20), Color.RED.getRGB());
+		assertEquals(image.getRGB(15, 10), Color.WHITE.getRGB());
+	}
+	
+	@Test
+	public void testProducerConsumer() throws InterruptedException
+	{
+		Thread producer = new Thread() {
+			public void run()
+			{
+				for(int i = 0; i < EVENTS; i++)
+					queue.add(StrokeQueue.POINT, i % SIZE, i % SIZE, Color.BLACK.getRGB());
+			}
+		};
+		producer.start();
+		
+		int taken = 0;
+		while(taken < EVENTS)
+			taken += queue.drainTo(zone);
+		producer.join();
+		
+		assertEquals(taken, EVENTS);
+		assertTrue(queue.isEmpty());
+	}
+	
+	@Test
+	public void testCloseReleasesFullProducer() throws InterruptedException
+	{
+		Thread producer = new Thread() {
+			public void run()
+			{
+				for(int i = 0; i < EVENTS; i++)
+					queue.add(StrokeQueue.POINT, 0, 0, Color.BLACK.getRGB());
+			}
+		};
+		producer.start();
+		
+		// Nothing drains it, so the producer fills the ring and waits
+		Thread.sleep(100);
+		assertTrue(producer.isAlive());
+		
+		queue.close();
+		producer.join(2000);
+		assertFalse(producer.isAlive());
+		assertFalse(queue.add(StrokeQueue.POINT, 0, 0, 0));
+	}
+	
+	private static int units(int pixel)
+	{
+		return StrokeModel.toUnits(pixel, SIZE);
+	}
+	
+	private BufferedImage render()
+	{
+		BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+		zone.paint(image.createGraphics());
+		return image;
+	}
+}
@@ -0,0 +1,98 @@
+package picturegametest;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+import picturegame.StrokeModel;
+import picturegame.StrokeSimplifier;
+
+public class StrokeSimplifierTest {
+	
+	// Constants
+	private static final int SIZE = 300;
+	private static final int BLACK = Color.BLACK.getRGB();
+	private static final float TOLERANCE = 1.0f;
+	private static final int SLACK = 2; // pixels, rounding plus the simplifier's guess at the next point
+	
+	@Test
+	public void testStraightLine()
+	{
+		StrokeSimplifier simplifier = new StrokeSimplifier(TOLERANCE);
+		int sent = 0;
+		for(int x = 10; x <= 200; x++)
+			if(simplifier.add(x, 50, BLACK))
+				sent++;
+		if(simplifier.end())
+			sent++;
+		
+		assertTrue(sent < 10);
+		assertEquals(simplifier.getX(), 200); // the stroke still ends where it did
+	}
+	
+	@Test
+	public void testZeroTolerance()
+	{
+		StrokeSimplifier simplifier = new StrokeSimplifier(0);
+		for(int x = 10; x <= 200; x++)
+			assertTrue(simplifier.add(x, 50, BLACK));
+		assertFalse(simplifier.end());
+	}
+	
+	@Test
+	public void testZigzagWithinTolerance()
+	{
+		int points = 720;
+		int[] xs = new int[points];
+		int[] ys = new int[points];
+		for(int i = 0; i < points; i++)
+		{
+			xs[i] = 10 + i * (SIZE - 20) / points;
+			ys[i] = (int) Math.round(100 + 50 * Math.sin(i * Math.PI / 360)) + 2 * Math.abs(i % 80 - 40);
+		}
+		
+		// What the other players receive and draw
+		StrokeSimplifier simplifier = new StrokeSimplifier(TOLERANCE);
+		StrokeModel model = new StrokeModel();
+		int sent = 0;
+		for(int i = 0; i < points; i++)
+			if(simplifier.add(xs[i], ys[i], BLACK))
+			{
+				model.addPoint(StrokeModel.toFraction(simplifier.getX(), SIZE),
+						StrokeModel.toFraction(simplifier.getY(), SIZE), BLACK);
+				sent++;
+			}
+		if(simplifier.end())
+		{
+			model.addPoint(StrokeModel.toFraction(simplifier.getX(), SIZE),
+					StrokeModel.toFraction(simplifier.getY(), SIZE), BLACK);
+			sent++;
+		}
+		model.endStroke();
+		
+		assertTrue(sent < points / 4);
+		
+		BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.WHITE);
+		g.fillRect(0, 0, SIZE, SIZE);
+		model.render(g, SIZE, SIZE);
+		g.dispose();
+		for(int i = 0; i < points; i++)
+			assertTrue(drawnNear(image, xs[i], ys[i]));
+	}
+	
+	private static boolean drawnNear(BufferedImage image, int x, int y)
+	{
+		for(int dx = -SLACK; dx <= SLACK; dx++)
+			for(int dy = -SLACK; dy <= SLACK; dy++)
+				if(image.getRGB(x + dx, y + dy) == BLACK)
+					return true;
+		
+		return false;
+	}
+}